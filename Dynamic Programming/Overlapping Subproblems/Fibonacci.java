@@ -1,4 +1,7 @@
+import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
 
 public class Fibonacci {
     /*
@@ -40,36 +43,234 @@ public class Fibonacci {
         return fibonacci(n-1)+ fibonacci(n-2);
     }
 
-    public static int fibonacciWithMemoization(int n, int[] dp){
     /*
     Memoization: This function optimizes the recursive Fibonacci calculation by storing
-    previously computed results in the dp array. This avoids redundant recursive calls
+    previously computed results in a shared Memoizer. This avoids redundant recursive calls
     for the same subproblems, a key feature of dynamic programming (DP).
-    If dp[n] is not -1, it means Fibonacci(n) was already computed and can be reused directly.
+    The Memoizer is bounded and thread-safe, and results are long, so every n up to 92 is exact.
     */
-        if(n <= 1){
-            return n;
+    private static final Memoizer FIBONACCI_MEMO =
+            new Memoizer(128, (n, memo) -> n <= 1 ? n : memo.get(n - 1) + memo.get(n - 2));
+
+    public static long fibonacciWithMemoization(int n){
+
+        if(n < 0 || n > MAX_LONG_N){
+            throw new ArithmeticException("F(" + n + ") does not fit in a long, use fibonacciBig or fibonacciMod");
+        }
+        return FIBONACCI_MEMO.get(n);
+    }
+
+    /*
+     * Fast Doubling:
+     *   F(2k)     = F(k) * (2F(k+1) - F(k))
+     *   F(2k + 1) = F(k)^2 + F(k+1)^2
+     *
+     * Walking the bits of n from the top, the pair (F(k), F(k+1)) goes to (F(2k), F(2k+1)) for a 0 bit
+     * and to (F(2k+1), F(2k+2)) for a 1 bit, so F(n) takes about log2(n) steps of 3 multiplications.
+     *
+     *   - Time Complexity: O(log n) multiplications
+     *   - Space Complexity: O(1) (no recursion)
+     */
+    static final int MAX_LONG_N = 92; // F(93) > Long.MAX_VALUE
+
+    public static long fibonacciFastDoubling(long n){
+
+        if(n < 0 || n > MAX_LONG_N){
+            throw new ArithmeticException("F(" + n + ") does not fit in a long, use fibonacciBig or fibonacciMod");
+        }
+        long a = 0, b = 1;   // F(k), F(k+1)
+        for(int bit = 63 - Long.numberOfLeadingZeros(n); bit >= 0; bit--){
+            long c = a * (2 * b - a);   // F(2k)
+            long d = a * a + b * b;     // F(2k+1); may wrap on the last step, but is then unused
+            if(((n >>> bit) & 1) == 0){
+                a = c;
+                b = d;
+            } else {
+                a = d;
+                b = c + d;
+            }
         }
+        return a;
+    }
+
+    // F(n) mod p, for any n >= 0 and 1 <= p < 2^62
+    public static long fibonacciMod(long n, long p){
+
+        long[] pair = fibonacciPairMod(n, p);
+        return pair[0];
+    }
 
-        if(dp[n] != -1){
-            return dp[n];
+    // {F(n) mod p, F(n+1) mod p}
+    static long[] fibonacciPairMod(long n, long p){
+
+        if(n < 0 || p < 1 || p >= (1L << 62)){
+            throw new IllegalArgumentException("need n >= 0 and 1 <= p < 2^62");
+        }
+        long a = 0, b = 1 % p;
+        for(int bit = 63 - Long.numberOfLeadingZeros(n); bit >= 0; bit--){
+            long twoBMinusA = addMod(b, b - a < 0 ? b - a + p : b - a, p);
+            long c = mulMod(a, twoBMinusA, p);
+            long d = addMod(mulMod(a, a, p), mulMod(b, b, p), p);
+            if(((n >>> bit) & 1) == 0){
+                a = c;
+                b = d;
+            } else {
+                a = d;
+                b = addMod(c, d, p);
+            }
         }
+        return new long[]{a, b};
+    }
 
-        dp[n] = fibonacciWithMemoization(n-1,dp)+ fibonacciWithMemoization(n-2,dp);
+    // x + y mod m for x, y in [0, m) and m < 2^62 (the sum cannot overflow)
+    static long addMod(long x, long y, long m){
+        long sum = x + y;
+        return sum >= m ? sum - m : sum;
+    }
+
+    // x * y mod m for x, y in [0, m) and m < 2^62
+    static long mulMod(long x, long y, long m){
 
-        return dp[n];
+        // Fast path: the full product fits in a signed long
+        if(Math.multiplyHigh(x, y) == 0 && x * y >= 0){
+            return x * y % m;
+        }
+        // Otherwise double-and-add, every partial sum stays below 2m < 2^63
+        long result = 0;
+        while(y > 0){
+            if((y & 1) != 0){
+                result = addMod(result, x, m);
+            }
+            x = addMod(x, x, m);
+            y >>>= 1;
+        }
+        return result;
+    }
+
+    /*
+     * Exact F(n) with the same doubling steps on BigInteger. F(n) has about 0.694 * n bits, so for n in
+     * the millions the three products per step dominate; once the operands pass PARALLEL_BITS they run
+     * as separate fork/join tasks. The last step only computes the product it actually needs.
+     */
+    static final int PARALLEL_BITS = 1 << 15;
+
+    public static BigInteger fibonacciBig(int n){
+        return fibonacciBig(n, true);
+    }
+
+    public static BigInteger fibonacciBig(int n, boolean parallel){
+
+        if(n < 0){
+            throw new IllegalArgumentException("n must be >= 0");
+        }
+        BigInteger a = BigInteger.ZERO, b = BigInteger.ONE;
+        for(int bit = 31 - Integer.numberOfLeadingZeros(n); bit >= 0; bit--){
+            boolean one = ((n >>> bit) & 1) != 0;
+            if(bit == 0){
+                // Only F(n) is left to produce
+                return one ? a.multiply(a).add(b.multiply(b)) : a.multiply(b.shiftLeft(1).subtract(a));
+            }
+            BigInteger[] products = doublingProducts(a, b, parallel && a.bitLength() >= PARALLEL_BITS);
+            BigInteger c = products[0];
+            BigInteger d = products[1].add(products[2]);
+            if(one){
+                a = d;
+                b = c.add(d);
+            } else {
+                a = c;
+                b = d;
+            }
+        }
+        return a; // n == 0
+    }
+
+    // {a * (2b - a), a^2, b^2}
+    private static BigInteger[] doublingProducts(BigInteger a, BigInteger b, boolean parallel){
+
+        BigInteger twoBMinusA = b.shiftLeft(1).subtract(a);
+        if(!parallel){
+            return new BigInteger[]{a.multiply(twoBMinusA), a.multiply(a), b.multiply(b)};
+        }
+        ForkJoinTask<BigInteger> aSquared = ForkJoinTask.adapt(() -> a.multiply(a)).fork();
+        ForkJoinTask<BigInteger> bSquared = ForkJoinTask.adapt(() -> b.multiply(b)).fork();
+        BigInteger c = a.multiply(twoBMinusA);
+        return new BigInteger[]{c, aSquared.join(), bSquared.join()};
+    }
+
+    // F(from), ..., F(to) exactly; to <= 92
+    public static long[] fibonacciRange(int from, int to){
+
+        if(from < 0 || from > to || to > MAX_LONG_N){
+            throw new IllegalArgumentException("need 0 <= from <= to <= " + MAX_LONG_N);
+        }
+        long[] result = new long[to - from + 1];
+        result[0] = fibonacciFastDoubling(from);
+        // F(from + 1) only when it is part of the range, so from = to = 92 does not overflow
+        if(from < to){
+            result[1] = fibonacciFastDoubling(from + 1);
+        }
+        for(int i = 2; i < result.length; i++){
+            result[i] = result[i - 1] + result[i - 2];
+        }
+        return result;
+    }
+
+    /*
+     * F(from) mod p, ..., F(to) mod p. Each chunk of RANGE_CHUNK values is seeded with one doubling
+     * (O(log n)) and then filled by plain additions, so chunks are independent and fill in parallel.
+     */
+    static final int RANGE_CHUNK = 1 << 14;
+
+    public static long[] fibonacciRangeMod(long from, long to, long p){
+
+        if(from < 0 || from > to || to - from >= Integer.MAX_VALUE){
+            throw new IllegalArgumentException("need 0 <= from <= to and fewer than 2^31 values");
+        }
+        long[] result = new long[(int) (to - from + 1)];
+        int chunks = (result.length + RANGE_CHUNK - 1) / RANGE_CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int start = chunk * RANGE_CHUNK;
+            int end = Math.min(result.length, start + RANGE_CHUNK);
+            long[] pair = fibonacciPairMod(from + start, p);
+            long a = pair[0], b = pair[1];
+            for(int i = start; i < end; i++){
+                result[i] = a;
+                long next = addMod(a, b, p);
+                a = b;
+                b = next;
+            }
+        });
+        return result;
     }
 
     public static void main(String[] args) {
 
         int n = 6;
 
-        int[] dp = new int[n+1];
-
-        Arrays.fill(dp, -1);
-        
         System.out.println("Fibonacci of number is :: "+ fibonacci(5));
-        System.out.println("Fibonacci of number with memoization :: "+ fibonacciWithMemoization(n,dp));
+        System.out.println("Fibonacci of number with memoization :: "+ fibonacciWithMemoization(n));
+        System.out.println("Fibonacci of 90 with memoization :: "+ fibonacciWithMemoization(90));
+        System.out.println("Fibonacci of 90 with fast doubling :: "+ fibonacciFastDoubling(90));
+        System.out.println("Fibonacci of 10^18 mod 1e9+7 :: "+ fibonacciMod(1_000_000_000_000_000_000L, 1_000_000_007L));
+        System.out.println("Fibonacci of 10..20 :: "+ Arrays.toString(fibonacciRange(10, 20)));
+        System.out.println("Fibonacci of 92..92 :: "+ Arrays.toString(fibonacciRange(92, 92)));
+
+        // Exact F(bigN) sequential vs parallel products, plus a large mod range, args = [bigN]
+        int bigN = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        for(int round = 0; round < 2; round++){
+            long start = System.nanoTime();
+            BigInteger sequential = fibonacciBig(bigN, false);
+            long sequentialMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            BigInteger parallel = fibonacciBig(bigN, true);
+            long parallelMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("F(" + bigN + ") has " + sequential.bitLength() + " bits: sequential " + sequentialMillis
+                    + " ms, parallel " + parallelMillis + " ms (equal: " + sequential.equals(parallel) + ")");
+        }
+        long start = System.nanoTime();
+        long[] range = fibonacciRangeMod(1_000_000_000_000L, 1_000_000_000_000L + 50_000_000, 998_244_353L);
+        System.out.println("F(10^12 .. 10^12 + 5*10^7) mod 998244353 in " + (System.nanoTime() - start) / 1_000_000
+                + " ms, last = " + range[range.length - 1]);
 
     }
 }
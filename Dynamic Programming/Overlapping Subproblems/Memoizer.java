@@ -0,0 +1,234 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+public final class Memoizer {
+    /*
+     * Reusable memo for recursive functions long -> long (int keys widen to long).
+     *
+     *   Memoizer fib = new Memoizer(1 << 10, (n, memo) -> n <= 1 ? n : memo.get(n - 1) + memo.get(n - 2));
+     *   fib.get(90);
+     *
+     * The function receives the memo itself, so its recursive calls are memoized too.
+     *
+     * Table: open addressing in fixed sets of WAYS slots (set-associative). A key hashes to one set and
+     * can only live in one of its WAYS slots, so a lookup scans at most WAYS primitive keys and the
+     * table never grows: when a set is full the slot under the set's round-robin hand is evicted.
+     *
+     * Threads: every set is guarded by one of STRIPES StampedLocks. Lookups are optimistic reads (no
+     * lock taken unless a writer raced them); inserts take the stripe's write lock for a few stores.
+     *
+     * No deadlock on recursion: ConcurrentHashMap.computeIfAbsent holds a bin lock while the function
+     * runs, so a recursive call that lands in the same bin deadlocks (or throws "Recursive update").
+     * Here the function always runs with no lock held, and the result is inserted afterwards. Two
+     * threads that miss on the same key may both compute it, which is harmless for the pure functions
+     * a memo is meant for.
+     *
+     *   - Time Complexity: O(WAYS) per lookup or insert
+     *   - Space Complexity: O(capacity), 16 bytes per slot
+     */
+
+    @FunctionalInterface
+    public interface Function {
+        long apply(long key, Memoizer memo);
+    }
+
+    static final int WAYS = 8;
+    private static final int STRIPES = 64;
+
+    private final Function function;
+    private final int setMask;
+    private final long[] keys;
+    private final long[] values;
+    private final int[] occupied;     // per set: bit w set when slot w holds an entry
+    private final int[] hand;         // per set: next slot to evict
+    private final StampedLock[] locks = new StampedLock[STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    static final int MAX_CAPACITY = 1 << 30;
+
+    // capacity is rounded up to WAYS times a power of two
+    public Memoizer(int capacity, Function function){
+
+        if(capacity < 1 || capacity > MAX_CAPACITY){
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY + ", got " + capacity);
+        }
+        int sets = 1;
+        while(sets * WAYS < capacity){
+            sets <<= 1;
+        }
+        this.function = function;
+        this.setMask = sets - 1;
+        this.keys = new long[sets * WAYS];
+        this.values = new long[sets * WAYS];
+        this.occupied = new int[sets];
+        this.hand = new int[sets];
+        for(int i = 0; i < STRIPES; i++){
+            locks[i] = new StampedLock();
+        }
+    }
+
+    public long get(long key){
+
+        int set = setOf(key);
+        StampedLock lock = locks[set & (STRIPES - 1)];
+
+        long stamp = lock.tryOptimisticRead();
+        int slot = find(set, key);
+        long value = slot < 0 ? 0 : values[slot];
+        if(!lock.validate(stamp)){
+            stamp = lock.readLock();
+            try {
+                slot = find(set, key);
+                value = slot < 0 ? 0 : values[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if(slot >= 0){
+            hits.increment();
+            return value;
+        }
+
+        misses.increment();
+        value = function.apply(key, this); // no lock held while computing
+        put(set, key, value);
+        return value;
+    }
+
+    private void put(int set, long key, long value){
+
+        StampedLock lock = locks[set & (STRIPES - 1)];
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(set, key);
+            if(slot >= 0){
+                values[slot] = value;   // another thread got here first
+                return;
+            }
+            int free = ~occupied[set] & ((1 << WAYS) - 1);
+            int way;
+            if(free != 0){
+                way = Integer.numberOfTrailingZeros(free);
+                occupied[set] |= 1 << way;
+            } else {
+                way = hand[set];
+                hand[set] = (way + 1) & (WAYS - 1);
+                evictions.increment();
+            }
+            slot = set * WAYS + way;
+            values[slot] = value;
+            keys[slot] = key;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Slot holding key, or -1; may read torn state under an optimistic stamp, the caller validates
+    private int find(int set, long key){
+
+        int base = set * WAYS;
+        int bits = occupied[set];
+        while(bits != 0){
+            int way = Integer.numberOfTrailingZeros(bits);
+            if(keys[base + way] == key){
+                return base + way;
+            }
+            bits &= bits - 1;
+        }
+        return -1;
+    }
+
+    private int setOf(long key){
+        // murmur3 finalizer, so consecutive keys spread over all sets
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & setMask;
+    }
+
+    public void clear(){
+
+        long[] stamps = new long[STRIPES];
+        for(int i = 0; i < STRIPES; i++){
+            stamps[i] = locks[i].writeLock();
+        }
+        try {
+            Arrays.fill(occupied, 0);
+            Arrays.fill(hand, 0);
+        } finally {
+            for(int i = 0; i < STRIPES; i++){
+                locks[i].unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    public int capacity(){
+        return keys.length;
+    }
+
+    public long hits(){
+        return hits.sum();
+    }
+
+    public long misses(){
+        return misses.sum();
+    }
+
+    public long evictions(){
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString(){
+        return "capacity " + capacity() + ", hits " + hits() + ", misses " + misses() + ", evictions " + evictions();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        Memoizer fibonacci = new Memoizer(128, (n, memo) -> n <= 1 ? n : memo.get(n - 1) + memo.get(n - 2));
+        System.out.println("Fibonacci of 90 :: " + fibonacci.get(90) + " (" + fibonacci + ")");
+
+        // Grid paths with a memo far smaller than the key space: entries get evicted and recomputed
+        final int size = 16;
+        Memoizer paths = new Memoizer(64, (cell, memo) -> {
+            long row = cell / size, col = cell % size;
+            if(row == 0 || col == 0){
+                return 1;
+            }
+            return memo.get(cell - size) + memo.get(cell - 1);
+        });
+        System.out.println("Paths through a 16x16 grid :: " + paths.get(size * size - 1L) + " (" + paths + ")");
+
+        // Many threads sharing one memoized function, args = [threads] [keys]
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int keys = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 20;
+        Memoizer collatz = new Memoizer(1 << 18, (n, memo) -> n == 1 ? 0 : 1 + memo.get((n & 1) == 0 ? n / 2 : 3 * n + 1));
+        long[] longest = new long[threads];
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for(int t = 0; t < threads; t++){
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                for(long n = 1 + id; n <= keys; n += threads){
+                    longest[id] = Math.max(longest[id], collatz.get(n));
+                }
+            });
+            workers[t].start();
+        }
+        for(Thread worker : workers){
+            worker.join();
+        }
+        long best = 0;
+        for(long steps : longest){
+            best = Math.max(best, steps);
+        }
+        System.out.println("Longest Collatz chain below " + keys + " :: " + best + " steps in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms (" + collatz + ")");
+    }
+}
@@ -0,0 +1,416 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class BitmaskSudokoSolver {
+    /*
+     * Sudoku on candidate bitmasks, for any N x N board with N = box * box (9x9, 16x16, 25x25).
+     *
+     *  - rows[r], cols[c], boxes[b]: bit d-1 set when digit d is already placed in that unit, so the
+     *    candidates of a cell are ~(rows[r] | cols[c] | boxes[b]) - one expression instead of
+     *    SudokoSolver.isValid's scan of row, column and box for every digit.
+     *  - Propagation before every branch:
+     *      naked single : a cell with one candidate gets it;
+     *      hidden single: a digit that fits only one cell of a row, column or box goes there.
+     *    A cell or unit with no option left fails the branch at once.
+     *  - MRV: the search branches on the empty cell with the fewest candidates, instead of always
+     *    restarting from (0, 0).
+     *  - Every placement is pushed on a trail, so backtracking pops it instead of copying boards.
+     *
+     * Time Complexity: exponential in the worst case; typical 9x9 puzzles need no or very few guesses.
+     * Space Complexity: O(N^2) per solver, allocated once and reused for every puzzle.
+     *
+     * A solver object is not thread-safe; solveAll() gives every worker thread its own.
+     * Boards are flat int[N * N] in row-major order, 0 for an empty cell.
+     */
+
+    static final int MAX_BOX = 5; // 25 x 25, candidates fit in an int
+
+    private final int box;
+    private final int size;          // N
+    private final int cells;         // N * N
+    private final int full;
+    private final int[] rowOf, colOf, boxOf;
+    private final int[][] units;     // 3N units (rows, columns, boxes) of N cells each
+
+    private final int[] rows, cols, boxes;
+    private final int[] value;
+    private final int[] empty;       // empty cells are empty[0 .. emptyCount)
+    private final int[] position;    // index of a cell in empty[]
+    private int emptyCount;
+    private final int[] trail;
+    private int trailSize;
+    private long guesses;
+
+    public BitmaskSudokoSolver(int box){
+
+        if(box < 1 || box > MAX_BOX){
+            throw new IllegalArgumentException("box size must be between 1 and " + MAX_BOX);
+        }
+        this.box = box;
+        this.size = box * box;
+        this.cells = size * size;
+        this.full = size == 32 ? -1 : (1 << size) - 1;
+        rowOf = new int[cells];
+        colOf = new int[cells];
+        boxOf = new int[cells];
+        units = new int[3 * size][size];
+        int[] filled = new int[3 * size];
+        for(int cell = 0; cell < cells; cell++){
+            int r = cell / size, c = cell % size, b = (r / box) * box + c / box;
+            rowOf[cell] = r;
+            colOf[cell] = c;
+            boxOf[cell] = b;
+            units[r][filled[r]++] = cell;
+            units[size + c][filled[size + c]++] = cell;
+            units[2 * size + b][filled[2 * size + b]++] = cell;
+        }
+        rows = new int[size];
+        cols = new int[size];
+        boxes = new int[size];
+        value = new int[cells];
+        empty = new int[cells];
+        position = new int[cells];
+        trail = new int[cells];
+    }
+
+    public int size(){
+        return size;
+    }
+
+    // Guesses (branches beyond the first candidate) made by the last solve
+    public long guesses(){
+        return guesses;
+    }
+
+    // Solves board (flat, row-major, 0 = empty) in place; false if it has no solution
+    public boolean solve(int[] board){
+
+        if(board.length != cells){
+            throw new IllegalArgumentException("board must have " + cells + " cells");
+        }
+        Arrays.fill(rows, 0);
+        Arrays.fill(cols, 0);
+        Arrays.fill(boxes, 0);
+        Arrays.fill(value, 0);
+        emptyCount = 0;
+        trailSize = 0;
+        guesses = 0;
+        for(int cell = 0; cell < cells; cell++){
+            position[cell] = emptyCount;
+            empty[emptyCount++] = cell;
+        }
+        for(int cell = 0; cell < cells; cell++){
+            int digit = board[cell];
+            if(digit == 0){
+                continue;
+            }
+            if(digit < 0 || digit > size || (candidates(cell) & (1 << (digit - 1))) == 0){
+                return false;
+            }
+            assign(cell, 1 << (digit - 1));
+        }
+        if(!search()){
+            return false;
+        }
+        for(int cell = 0; cell < cells; cell++){
+            board[cell] = value[cell];
+        }
+        return true;
+    }
+
+    // Same signature as SudokoSolver.solve, for 9x9 boards
+    public static boolean solve(int[][] sudoko){
+
+        int n = sudoko.length;
+        int box = (int) Math.round(Math.sqrt(n));
+        int[] board = new int[n * n];
+        for(int row = 0; row < n; row++){
+            System.arraycopy(sudoko[row], 0, board, row * n, n);
+        }
+        if(!new BitmaskSudokoSolver(box).solve(board)){
+            return false;
+        }
+        for(int row = 0; row < n; row++){
+            System.arraycopy(board, row * n, sudoko[row], 0, n);
+        }
+        return true;
+    }
+
+    private int candidates(int cell){
+        return full & ~(rows[rowOf[cell]] | cols[colOf[cell]] | boxes[boxOf[cell]]);
+    }
+
+    private void assign(int cell, int bit){
+
+        value[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+        rows[rowOf[cell]] |= bit;
+        cols[colOf[cell]] |= bit;
+        boxes[boxOf[cell]] |= bit;
+
+        // Swap the cell to the end of the empty list; undo() relies on LIFO order to swap it back in
+        int last = empty[--emptyCount];
+        int at = position[cell];
+        empty[at] = last;
+        position[last] = at;
+        empty[emptyCount] = cell;
+        position[cell] = emptyCount;
+
+        trail[trailSize++] = cell;
+    }
+
+    private void undo(int mark){
+
+        while(trailSize > mark){
+            int cell = trail[--trailSize];
+            int bit = ~(1 << (value[cell] - 1));
+            rows[rowOf[cell]] &= bit;
+            cols[colOf[cell]] &= bit;
+            boxes[boxOf[cell]] &= bit;
+            value[cell] = 0;
+            emptyCount++;
+        }
+    }
+
+    // Naked and hidden singles until nothing changes; false on a contradiction
+    private boolean propagate(){
+
+        boolean changed = true;
+        while(changed && emptyCount > 0){
+            changed = false;
+
+            // Backwards, so assign() only ever swaps in a cell that was already looked at
+            for(int i = emptyCount - 1; i >= 0; i--){
+                int cell = empty[i];
+                int candidates = candidates(cell);
+                if(candidates == 0){
+                    return false;
+                }
+                if((candidates & (candidates - 1)) == 0){
+                    assign(cell, candidates);
+                    changed = true;
+                }
+            }
+
+            for(int[] unit : units){
+                int once = 0, twice = 0, placed = 0;
+                for(int cell : unit){
+                    if(value[cell] != 0){
+                        placed |= 1 << (value[cell] - 1);
+                        continue;
+                    }
+                    int candidates = candidates(cell);
+                    twice |= once & candidates;
+                    once |= candidates;
+                }
+                if((once | placed) != full){
+                    return false; // some digit fits nowhere in this unit
+                }
+                int hidden = once & ~twice;
+                while(hidden != 0){
+                    int bit = hidden & -hidden;
+                    hidden ^= bit;
+                    for(int cell : unit){
+                        if(value[cell] == 0 && (candidates(cell) & bit) != 0){
+                            assign(cell, bit);
+                            changed = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean search(){
+
+        int mark = trailSize;
+        if(!propagate()){
+            undo(mark);
+            return false;
+        }
+        if(emptyCount == 0){
+            return true;
+        }
+
+        // MRV: the empty cell with the fewest candidates (never fewer than 2 after propagation)
+        int best = -1, bestCandidates = 0, bestCount = Integer.MAX_VALUE;
+        for(int i = 0; i < emptyCount; i++){
+            int cell = empty[i];
+            int candidates = candidates(cell);
+            int count = Integer.bitCount(candidates);
+            if(count < bestCount){
+                best = cell;
+                bestCandidates = candidates;
+                bestCount = count;
+                if(count <= 2){
+                    break;
+                }
+            }
+        }
+
+        int branchMark = trailSize;
+        for(int options = bestCandidates; options != 0; options &= options - 1){
+            if(options != bestCandidates){
+                guesses++;
+            }
+            assign(best, options & -options);
+            if(search()){
+                return true;
+            }
+            undo(branchMark);
+        }
+        undo(mark);
+        return false;
+    }
+
+    public static final class BatchResult {
+        public final int puzzles;
+        public final int solved;
+        public final long nanos;
+
+        BatchResult(int puzzles, int solved, long nanos){
+            this.puzzles = puzzles;
+            this.solved = solved;
+            this.nanos = nanos;
+        }
+
+        public double puzzlesPerSecond(){
+            return puzzles / (nanos / 1e9);
+        }
+
+        @Override
+        public String toString(){
+            return solved + "/" + puzzles + " solved in " + nanos / 1_000_000 + " ms ("
+                    + String.format("%.0f", puzzlesPerSecond()) + " puzzles/s)";
+        }
+    }
+
+    // Solves every board in place on all cores, one reused solver per worker thread
+    public static BatchResult solveAll(int[][] boards, int box){
+
+        ThreadLocal<BitmaskSudokoSolver> solvers = ThreadLocal.withInitial(() -> new BitmaskSudokoSolver(box));
+        AtomicInteger solved = new AtomicInteger();
+        long start = System.nanoTime();
+        IntStream.range(0, boards.length).parallel().forEach(i -> {
+            if(solvers.get().solve(boards[i])){
+                solved.incrementAndGet();
+            }
+        });
+        return new BatchResult(boards.length, solved.get(), System.nanoTime() - start);
+    }
+
+    // 81 characters, digits for givens and '.' or '0' for empty cells
+    public static int[] parse(String puzzle){
+
+        int[] board = new int[puzzle.length()];
+        for(int i = 0; i < board.length; i++){
+            char ch = puzzle.charAt(i);
+            board[i] = ch >= '1' && ch <= '9' ? ch - '0' : 0;
+        }
+        return board;
+    }
+
+    // A random valid N x N grid (shuffled pattern) with `blanks` cells cleared
+    static int[] randomPuzzle(int box, int blanks, SplittableRandom random){
+
+        int n = box * box;
+        int[] digits = shuffled(n, random);
+        int[] rowOrder = new int[n], colOrder = new int[n];
+        int[] bands = shuffled(box, random), stacks = shuffled(box, random);
+        for(int b = 0; b < box; b++){
+            int[] inBand = shuffled(box, random), inStack = shuffled(box, random);
+            for(int i = 0; i < box; i++){
+                rowOrder[b * box + i] = bands[b] * box + inBand[i];
+                colOrder[b * box + i] = stacks[b] * box + inStack[i];
+            }
+        }
+        int[] board = new int[n * n];
+        for(int r = 0; r < n; r++){
+            for(int c = 0; c < n; c++){
+                int row = rowOrder[r], col = colOrder[c];
+                board[r * n + c] = digits[(box * (row % box) + row / box + col) % n] + 1;
+            }
+        }
+        int[] order = shuffled(n * n, random);
+        for(int i = 0; i < blanks; i++){
+            board[order[i]] = 0;
+        }
+        return board;
+    }
+
+    private static int[] shuffled(int n, SplittableRandom random){
+
+        int[] a = new int[n];
+        for(int i = 0; i < n; i++){
+            a[i] = i;
+        }
+        for(int i = n - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+        return a;
+    }
+
+    public static void main(String[] args) {
+
+        int[][] sudoko = {
+            {5, 3, 0, 0, 7, 0, 0, 0, 0},
+            {6, 0, 0, 1, 9, 5, 0, 0, 0},
+            {0, 9, 8, 0, 0, 0, 0, 6, 0},
+            {8, 0, 0, 0, 6, 0, 0, 0, 3},
+            {4, 0, 0, 8, 0, 3, 0, 0, 1},
+            {7, 0, 0, 0, 2, 0, 0, 0, 6},
+            {0, 6, 0, 0, 0, 0, 2, 8, 0},
+            {0, 0, 0, 4, 1, 9, 0, 0, 5},
+            {0, 0, 0, 0, 8, 0, 0, 7, 9}
+        };
+        solve(sudoko);
+        for(int i = 0; i < 9; i++){
+            for(int j = 0; j < 9; j++){
+                System.out.print(sudoko[i][j] + " ");
+            }
+            System.out.println();
+        }
+
+        // A puzzle built to defeat naive backtracking: old solver vs bitmask solver
+        String hard = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+        int[][] grid = new int[9][9];
+        int[] flat = parse(hard);
+        for(int row = 0; row < 9; row++){
+            System.arraycopy(flat, row * 9, grid[row], 0, 9);
+        }
+        long start = System.nanoTime();
+        SudokoSolver.solve(grid);
+        long oldMicros = (System.nanoTime() - start) / 1_000;
+        BitmaskSudokoSolver solver = new BitmaskSudokoSolver(3);
+        start = System.nanoTime();
+        solver.solve(flat);
+        long newMicros = (System.nanoTime() - start) / 1_000;
+        System.out.println("Hard 9x9: SudokoSolver " + oldMicros + " us, bitmask " + newMicros + " us with "
+                + solver.guesses() + " guesses (same grid: " + Arrays.equals(flat, Arrays.stream(grid).flatMapToInt(Arrays::stream).toArray()) + ")");
+
+        // Batches of random puzzles, args = [puzzles9x9]
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        SplittableRandom random = new SplittableRandom(22);
+        int[][] batch9 = new int[count][];
+        for(int i = 0; i < count; i++){
+            batch9[i] = randomPuzzle(3, 58, random);
+        }
+        int[][] batch16 = new int[count / 100][];
+        for(int i = 0; i < batch16.length; i++){
+            batch16[i] = randomPuzzle(4, 150, random);
+        }
+        int[][] batch25 = new int[count / 1000][];
+        for(int i = 0; i < batch25.length; i++){
+            batch25[i] = randomPuzzle(5, 300, random);
+        }
+        System.out.println("9x9   : " + solveAll(batch9, 3));
+        System.out.println("16x16 : " + solveAll(batch16, 4));
+        System.out.println("25x25 : " + solveAll(batch25, 5));
+    }
+}
@@ -0,0 +1,301 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+public class ChromaticNumber {
+    /*
+     * Exact chromatic number by inclusion-exclusion over vertex subsets (Bjorklund, Husfeldt, Koivisto).
+     *
+     * Let ind(S) be the number of independent sets (the empty set included) inside the subset S.
+     * The number of ways to cover all n vertices with k independent sets is
+     *
+     *     c(k) = sum over S of (-1)^(n - |S|) * ind(S)^k
+     *
+     * and the graph is k-colorable exactly when c(k) > 0.
+     *
+     * ind(S) for all 2^n subsets comes from one DP, with v the highest vertex of S:
+     *
+     *     ind(S) = ind(S \ {v}) + ind(S \ N[v])        (sets without v + sets with v)
+     *
+     * Both right-hand subsets are below 2^v, so each block [2^v, 2^(v+1)) only reads earlier blocks
+     * and is filled in parallel.
+     *
+     * c(k) is evaluated modulo two primes with a parallel sum over all subsets. A nonzero residue proves
+     * c(k) > 0. Only the k between the clique lower bound and the greedy DSATUR upper bound are tried,
+     * so this costs a handful of passes instead of MColoring's "try m = 1, 2, 3, ..." backtracking loop.
+     * The test is one-sided: if c(k) happens to be a multiple of both primes (about 2^62), k is wrongly
+     * rejected and a larger k (still with a valid coloring) is reported. The k - 1 below the answer
+     * is not re-checked exactly, since that would need the full sum in BigInteger.
+     *
+     * The coloring is peeled off the same counts, one color class at a time. With R the uncolored
+     * vertices and j colors left, the covers of every X inside R by j - 1 independent sets are
+     *
+     *     c_X(j - 1) = sum over S inside X of (-1)^(|X| - |S|) * ind(S)^(j - 1)
+     *
+     * all at once, by a subset Mobius transform of ind(S)^(j - 1). Any independent T that contains
+     * the lowest vertex of R and has c_(R \ T)(j - 1) != 0 becomes the next color class (S is
+     * independent exactly when ind(S) = 2^|S|).
+     *
+     * Time Complexity: O(2^n * log k) per candidate k, independent of how hard the instance is,
+     *                  plus O(k * n * 2^n) additions for the coloring.
+     * Space Complexity: 4 * 2^n bytes for ind(S) and 4 * 2^n for the transform, so 30 vertices need
+     *                   an 8 GB heap, 26 need 512 MB.
+     */
+
+    public static final int MAX_VERTICES = 30;
+
+    private static final long PRIME_1 = 2_147_483_647L;     // 2^31 - 1
+    private static final long PRIME_2 = 2_147_483_629L;
+    private static final int SUM_CHUNK = 1 << 16;
+    private static final int PARALLEL_BLOCK = 1 << 14;
+
+    public static final class Result {
+        public final int chromaticNumber;
+        public final int[] coloring;     // colors 1..chromaticNumber, as in MColoring
+
+        Result(int chromaticNumber, int[] coloring) {
+            this.chromaticNumber = chromaticNumber;
+            this.coloring = coloring;
+        }
+    }
+
+    public static Result solve(List<Integer>[] graph) {
+        int n = checkSize(graph.length);
+        int[] closedNeighborhood = new int[n];
+        for (int v = 0; v < n; v++) {
+            for (int u : graph[v]) {
+                addEdge(closedNeighborhood, v, u);
+            }
+        }
+        return solve(closedNeighborhood);
+    }
+
+    // Same, for n vertices and an edge list {u, v}
+    public static Result solve(int n, int[][] edges) {
+        int[] closedNeighborhood = new int[checkSize(n)];
+        for (int[] edge : edges) {
+            addEdge(closedNeighborhood, edge[0], edge[1]);
+        }
+        return solve(closedNeighborhood);
+    }
+
+    private static int checkSize(int n) {
+        if (n > MAX_VERTICES) {
+            throw new IllegalArgumentException("subset DP supports at most " + MAX_VERTICES + " vertices: " + n);
+        }
+        return n;
+    }
+
+    private static void addEdge(int[] closedNeighborhood, int v, int u) {
+        if (u == v) {
+            throw new IllegalArgumentException("vertex " + v + " has a self-loop and cannot be colored");
+        }
+        closedNeighborhood[v] |= 1 << u;
+        closedNeighborhood[u] |= 1 << v;
+    }
+
+    // closedNeighborhood[v] = bitmask of v's neighbors (v itself is added here)
+    private static Result solve(int[] closedNeighborhood) {
+        int n = closedNeighborhood.length;
+        if (n == 0) return new Result(0, new int[0]);
+
+        // The same adjacency in CSR form for the DSATUR bounds
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[Arrays.stream(closedNeighborhood).map(Integer::bitCount).sum()];
+        for (int v = 0; v < n; v++) {
+            int position = offsets[v];
+            for (int bits = closedNeighborhood[v]; bits != 0; bits &= bits - 1) {
+                targets[position++] = Integer.numberOfTrailingZeros(bits);
+            }
+            offsets[v + 1] = position;
+            closedNeighborhood[v] |= 1 << v;
+        }
+
+        DsaturColoring dsatur = DsaturColoring.fromCsr(n, offsets, targets);
+        int lower = dsatur.cliqueLowerBound();
+        int[] greedy = dsatur.greedyColoring();
+        int upper = Arrays.stream(greedy).max().getAsInt();
+        if (lower == upper) return new Result(upper, greedy);
+
+        int[] independentSets = countIndependentSets(n, closedNeighborhood);
+        for (int k = lower; k < upper; k++) {
+            if (coverable(independentSets, n, k)) {
+                int[] coloring = peelColoring(independentSets, n, k, PRIME_1);
+                if (coloring == null) coloring = peelColoring(independentSets, n, k, PRIME_2);
+                // Only if every usable c_(R \ T) vanished modulo both primes
+                if (coloring == null) coloring = dsatur.color(k);
+                return new Result(k, coloring);
+            }
+        }
+        return new Result(upper, greedy);
+    }
+
+    // k-coloring built from ind(S) one color class at a time, or null if the residues mod prime ran out
+    static int[] peelColoring(int[] independentSets, int n, int k, long prime) {
+        int[] color = new int[n];
+        int[] covers = new int[1 << n];
+        int remaining = (int) ((1L << n) - 1);
+        for (int c = 1; remaining != 0; c++) {
+            int size = 1 << Integer.bitCount(remaining);
+            int rest = remaining;
+            int colorsLeft = k - c;
+            if (colorsLeft < 0) return null;
+
+            // covers[x] = ind(S)^colorsLeft, x the index of S among the subsets of R
+            int blocks = Math.max(1, size / PARALLEL_BLOCK);
+            int blockSize = size / blocks;
+            IntStream range = IntStream.range(0, blocks);
+            (blocks > 1 ? range.parallel() : range).forEach(block -> {
+                int from = block * blockSize;
+                int subset = deposit(from, rest);
+                for (int x = from, to = from + blockSize; x < to; x++) {
+                    covers[x] = (int) power(independentSets[subset], colorsLeft, prime);
+                    subset = (subset - rest) & rest;
+                }
+            });
+            // Mobius transform: covers[x] = c_X(colorsLeft) mod prime
+            for (int bit = 1; bit < size; bit <<= 1) {
+                for (int x = bit; x < size; x = (x + 1) | bit) {
+                    int difference = covers[x] - covers[x ^ bit];
+                    covers[x] = difference < 0 ? difference + (int) prime : difference;
+                }
+            }
+
+            // Next class T: independent, holds the lowest vertex of R (index bit 0 clear in x = R \ T)
+            int chosen = 0;
+            for (int x = 0, subset = 0; x < size; x += 2, subset = deposit(x, rest)) {
+                int candidate = rest ^ subset;
+                if (covers[x] != 0 && independentSets[candidate] == 1 << Integer.bitCount(candidate)) {
+                    chosen = candidate;
+                    break;
+                }
+            }
+            if (chosen == 0) return null;
+            for (int bits = chosen; bits != 0; bits &= bits - 1) {
+                color[Integer.numberOfTrailingZeros(bits)] = c;
+            }
+            remaining ^= chosen;
+        }
+        return color;
+    }
+
+    // The subset of mask whose i-th set bit is present exactly when bit i of index is
+    private static int deposit(int index, int mask) {
+        int subset = 0;
+        for (int bits = mask; index != 0 && bits != 0; bits &= bits - 1, index >>>= 1) {
+            if ((index & 1) != 0) subset |= bits & -bits;
+        }
+        return subset;
+    }
+
+    // ind(S) for every subset S of the n vertices
+    static int[] countIndependentSets(int n, int[] closedNeighborhood) {
+        int[] ind = new int[1 << n];
+        ind[0] = 1;
+        for (int v = 0; v < n; v++) {
+            int high = 1 << v;
+            int keep = ~closedNeighborhood[v];
+            if (high < PARALLEL_BLOCK) {
+                for (int s = high; s < high << 1; s++) {
+                    ind[s] = ind[s ^ high] + ind[s & keep];
+                }
+            } else {
+                IntStream.range(0, high / PARALLEL_BLOCK).parallel().forEach(block -> {
+                    int from = high + block * PARALLEL_BLOCK;
+                    for (int s = from, to = from + PARALLEL_BLOCK; s < to; s++) {
+                        ind[s] = ind[s ^ high] + ind[s & keep];
+                    }
+                });
+            }
+        }
+        return ind;
+    }
+
+    // c(k) != 0 modulo either prime proves a cover by k independent sets exists
+    static boolean coverable(int[] independentSets, int n, int k) {
+        long[] sums = ForkJoinPool.commonPool().invoke(new SumTask(independentSets, n, k, 0, independentSets.length));
+        return sums[0] != 0 || sums[1] != 0;
+    }
+
+    private static final class SumTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        final int[] ind;
+        final int n, k, from, to;
+
+        SumTask(int[] ind, int n, int k, int from, int to) {
+            this.ind = ind;
+            this.n = n;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > SUM_CHUNK) {
+                int mid = (from + to) >>> 1;
+                SumTask left = new SumTask(ind, n, k, from, mid);
+                left.fork();
+                long[] right = new SumTask(ind, n, k, mid, to).compute();
+                long[] sums = left.join();
+                sums[0] = (sums[0] + right[0]) % PRIME_1;
+                sums[1] = (sums[1] + right[1]) % PRIME_2;
+                return sums;
+            }
+            long sum1 = 0, sum2 = 0;
+            for (int s = from; s < to; s++) {
+                long p1 = power(ind[s], k, PRIME_1);
+                long p2 = power(ind[s], k, PRIME_2);
+                if (((n - Integer.bitCount(s)) & 1) == 0) {
+                    sum1 += p1;
+                    sum2 += p2;
+                } else {
+                    sum1 += PRIME_1 - p1;
+                    sum2 += PRIME_2 - p2;
+                }
+                if (sum1 >= PRIME_1) sum1 -= PRIME_1;
+                if (sum2 >= PRIME_2) sum2 -= PRIME_2;
+            }
+            return new long[]{sum1, sum2};
+        }
+    }
+
+    private static long power(long base, int exponent, long mod) {
+        long result = 1;
+        base %= mod;
+        while (exponent > 0) {
+            if ((exponent & 1) == 1) result = result * base % mod;
+            base = base * base % mod;
+            exponent >>= 1;
+        }
+        return result;
+    }
+
+    public static void main(String[] args) {
+
+        // Same graph as MColoring: a 4-cycle with one chord needs 3 colors
+        int N = 4;
+        int[][] edges = { {0,1}, {1,2}, {2,3}, {3,0}, {0,2} };
+        Result small = solve(N, edges);
+        System.out.println("Chromatic number: " + small.chromaticNumber + " " + Arrays.toString(small.coloring));
+
+        // Random dense graph, args = [vertices] [edge probability]
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 24;
+        double density = args.length > 1 ? Double.parseDouble(args[1]) : 0.5;
+        java.util.Random random = new java.util.Random(3);
+        List<int[]> edgeList = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            for (int v = u + 1; v < n; v++) {
+                if (random.nextDouble() < density) edgeList.add(new int[]{u, v});
+            }
+        }
+        long start = System.nanoTime();
+        Result result = solve(n, edgeList.toArray(new int[0][]));
+        System.out.println(n + " vertices, " + edgeList.size() + " edges: chromatic number " + result.chromaticNumber
+                + " in " + (System.nanoTime() - start) / 1_000_000 + " ms " + Arrays.toString(result.coloring));
+    }
+}
@@ -0,0 +1,354 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+
+public class CombinationCounter {
+    /*
+     * Counting and lazy enumeration for the two combination sum problems:
+     *
+     *  - CombinationSum  : distinct candidates, each usable any number of times (unbounded knapsack).
+     *  - CombinationSum2 : numbers with duplicates, each usable once, equal combinations counted once
+     *                      (bounded knapsack over the distinct values, value v at most mult(v) times).
+     *
+     * Both are "items with a multiplicity": an item is a value v usable 0..m times (m unbounded for
+     * CombinationSum). The counting DP adds the items one by one:
+     *
+     *   ways'[t] = ways[t] + ways[t - v] + ... + ways[t - m v]
+     *            = ways'[t - v] + ways[t] - ways[t - (m + 1) v]        (sliding window, O(target))
+     *
+     * on a long[] (exact with overflow check, or mod p) or a BigInteger[].
+     *
+     * Enumeration: reach[i] is a bitset of the sums that items i..k-1 can still make (same recurrence
+     * with "any" instead of "sum"). The walk picks a count for item 0, then item 1, ..., and only
+     * picks counts that leave a reachable remainder, so it never enters a branch without a solution
+     * and every step moves toward the next combination. The walk is iterative, the combination lives
+     * in one reused int[] and is handed to a consumer, which can stop early; a limit caps the number.
+     * Combinations come out in the same order as CombinationSum / CombinationSum2 print them.
+     *
+     * Time Complexity: counting O(k * target); enumeration O(k * target / 64) for the reach table, then
+     *                  O(k + length) per combination (plus skipping counts that cannot work)
+     * Space Complexity: O(target) for counting, O(k * target / 64) longs for the reach table
+     *
+     * Values must be positive (a zero would make the number of combinations infinite).
+     */
+
+    // combination[0 .. length) in the order the original solvers print; return false to stop
+    public interface CombinationConsumer {
+        boolean accept(int[] combination, int length);
+    }
+
+    private static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    // Distinct values with how often each may be used
+    private static final class Items {
+        final int[] values;
+        final int[] multiplicity;
+
+        Items(int[] values, int[] multiplicity){
+            this.values = values;
+            this.multiplicity = multiplicity;
+        }
+
+        int size(){
+            return values.length;
+        }
+    }
+
+    // CombinationSum: distinct candidates in input order, duplicates dropped
+    private static Items unbounded(int[] candidates){
+
+        int[] values = new int[candidates.length];
+        int k = 0;
+        for(int candidate : candidates){
+            checkPositive(candidate);
+            boolean seen = false;
+            for(int i = 0; i < k && !seen; i++){
+                seen = values[i] == candidate;
+            }
+            if(!seen){
+                values[k++] = candidate;
+            }
+        }
+        int[] multiplicity = new int[k];
+        Arrays.fill(multiplicity, UNBOUNDED);
+        return new Items(Arrays.copyOf(values, k), multiplicity);
+    }
+
+    // CombinationSum2: sorted distinct values, each with the number of times it occurs
+    private static Items bounded(int[] arr){
+
+        int[] sorted = arr.clone();
+        Arrays.sort(sorted);
+        int[] values = new int[sorted.length];
+        int[] multiplicity = new int[sorted.length];
+        int k = 0;
+        for(int i = 0; i < sorted.length; i++){
+            checkPositive(sorted[i]);
+            if(k > 0 && values[k - 1] == sorted[i]){
+                multiplicity[k - 1]++;
+            } else {
+                values[k] = sorted[i];
+                multiplicity[k++] = 1;
+            }
+        }
+        return new Items(Arrays.copyOf(values, k), Arrays.copyOf(multiplicity, k));
+    }
+
+    private static void checkPositive(int value){
+        if(value <= 0){
+            throw new IllegalArgumentException("values must be positive, got " + value);
+        }
+    }
+
+    public static long countCombinationSum(int[] candidates, int target){
+        return count(unbounded(candidates), target, 0);
+    }
+
+    public static long countCombinationSum(int[] candidates, int target, long mod){
+        return count(unbounded(candidates), target, checkMod(mod));
+    }
+
+    public static BigInteger countCombinationSumBig(int[] candidates, int target){
+        return countBig(unbounded(candidates), target);
+    }
+
+    public static long countCombinationSum2(int[] arr, int target){
+        return count(bounded(arr), target, 0);
+    }
+
+    public static long countCombinationSum2(int[] arr, int target, long mod){
+        return count(bounded(arr), target, checkMod(mod));
+    }
+
+    public static BigInteger countCombinationSum2Big(int[] arr, int target){
+        return countBig(bounded(arr), target);
+    }
+
+    private static long checkMod(long mod){
+        if(mod < 1 || mod > (1L << 62)){
+            throw new IllegalArgumentException("need 1 <= mod <= 2^62");
+        }
+        return mod;
+    }
+
+    // mod == 0: exact, ArithmeticException on overflow
+    private static long count(Items items, int target, long mod){
+
+        if(target < 0){
+            return 0;
+        }
+        long[] ways = new long[target + 1];
+        long[] next = new long[target + 1];
+        ways[0] = mod == 1 ? 0 : 1;
+        for(int i = 0; i < items.size(); i++){
+            int v = items.values[i];
+            long window = (long) items.multiplicity[i] + 1;   // counts 0..m
+            long drop = window * v;                          // ways[t - drop] leaves the window
+            for(int t = 0; t <= target; t++){
+                long sum = ways[t];
+                if(t >= v){
+                    long previous = next[t - v];
+                    long leaving = t >= drop ? ways[(int) (t - drop)] : 0;
+                    if(mod == 0){
+                        sum = Math.addExact(previous - leaving, sum);
+                    } else {
+                        long kept = previous - leaving;
+                        if(kept < 0){
+                            kept += mod;
+                        }
+                        sum = kept + sum;
+                        if(sum >= mod){
+                            sum -= mod;
+                        }
+                    }
+                }
+                next[t] = sum;
+            }
+            long[] swap = ways;
+            ways = next;
+            next = swap;
+        }
+        return ways[target];
+    }
+
+    private static BigInteger countBig(Items items, int target){
+
+        if(target < 0){
+            return BigInteger.ZERO;
+        }
+        BigInteger[] ways = new BigInteger[target + 1];
+        BigInteger[] next = new BigInteger[target + 1];
+        Arrays.fill(ways, BigInteger.ZERO);
+        ways[0] = BigInteger.ONE;
+        for(int i = 0; i < items.size(); i++){
+            int v = items.values[i];
+            long drop = ((long) items.multiplicity[i] + 1) * v;
+            for(int t = 0; t <= target; t++){
+                BigInteger sum = ways[t];
+                if(t >= v){
+                    sum = sum.add(next[t - v]);
+                    if(t >= drop){
+                        sum = sum.subtract(ways[(int) (t - drop)]);
+                    }
+                }
+                next[t] = sum;
+            }
+            BigInteger[] swap = ways;
+            ways = next;
+            next = swap;
+        }
+        return ways[target];
+    }
+
+    // reach[i] bit t: items i..k-1 can make exactly t; reach[k] = {0}
+    private static long[][] reachTable(Items items, int target){
+
+        int k = items.size();
+        int words = (target >>> 6) + 1;
+        long[][] reach = new long[k + 1][words];
+        reach[k][0] = 1L;
+        int[] windowCount = new int[target + 1];   // reachable sums among t, t - v, ..., t - m v
+        for(int i = k - 1; i >= 0; i--){
+            long[] after = reach[i + 1], here = reach[i];
+            int v = items.values[i];
+            long drop = ((long) items.multiplicity[i] + 1) * v;
+            for(int t = 0; t <= target; t++){
+                int count = (int) ((after[t >>> 6] >>> t) & 1);
+                if(t >= v){
+                    count += windowCount[t - v];
+                    if(t >= drop){
+                        count -= (int) ((after[(int) (t - drop) >>> 6] >>> (t - drop)) & 1);
+                    }
+                }
+                windowCount[t] = count;
+                if(count > 0){
+                    here[t >>> 6] |= 1L << t;
+                }
+            }
+        }
+        return reach;
+    }
+
+    public static long forEachCombinationSum(int[] candidates, int target, long limit, CombinationConsumer consumer){
+        return enumerate(unbounded(candidates), target, limit, consumer);
+    }
+
+    public static long forEachCombinationSum2(int[] arr, int target, long limit, CombinationConsumer consumer){
+        return enumerate(bounded(arr), target, limit, consumer);
+    }
+
+    private static long enumerate(Items items, int target, long limit, CombinationConsumer consumer){
+
+        if(target < 0 || limit <= 0){
+            return 0;
+        }
+        long[][] reach = reachTable(items, target);
+        if(((reach[0][target >>> 6] >>> target) & 1) == 0){
+            return 0;
+        }
+
+        int k = items.size();
+        int[] count = new int[k + 1];        // copies of item i in the current combination
+        int[] remaining = new int[k + 1];    // target left before item i
+        int[] length = new int[k + 1];       // combination length before item i
+        int[] combination = new int[16];
+        long emitted = 0;
+
+        int level = 0;
+        remaining[0] = target;
+        count[0] = maxCount(items, 0, target) + 1;
+        while(level >= 0){
+            if(level == k){
+                emitted++;
+                if(!consumer.accept(combination, length[k]) || emitted >= limit){
+                    return emitted;
+                }
+                level--;
+                continue;
+            }
+
+            // Next smaller count for this item that still leaves a reachable remainder
+            int v = items.values[level];
+            long[] after = reach[level + 1];
+            int c = count[level] - 1;
+            while(c >= 0){
+                int rest = remaining[level] - c * v;
+                if(((after[rest >>> 6] >>> rest) & 1) != 0){
+                    break;
+                }
+                c--;
+            }
+            count[level] = c;
+            if(c < 0){
+                level--;
+                continue;
+            }
+
+            int start = length[level];
+            if(start + c > combination.length){
+                combination = Arrays.copyOf(combination, Math.max(start + c, combination.length * 2));
+            }
+            Arrays.fill(combination, start, start + c, v);
+            length[level + 1] = start + c;
+            remaining[level + 1] = remaining[level] - c * v;
+            level++;
+            if(level < k){
+                count[level] = maxCount(items, level, remaining[level]) + 1;
+            }
+        }
+        return emitted;
+    }
+
+    private static int maxCount(Items items, int i, int remaining){
+        return Math.min(items.multiplicity[i], remaining / items.values[i]);
+    }
+
+    public static void main(String[] args) {
+
+        CombinationConsumer print = (combination, length) -> {
+            System.out.println(Arrays.toString(Arrays.copyOf(combination, length)));
+            return true;
+        };
+        int[] arr = new int[]{2,3,6,7};
+        forEachCombinationSum(arr, 7, Long.MAX_VALUE, print);
+        System.out.println("CombinationSum count :: " + countCombinationSum(arr, 7));
+
+        int[] arr2 = new int[]{1,3,1,2,2};
+        forEachCombinationSum2(arr2, 5, Long.MAX_VALUE, print);
+        System.out.println("CombinationSum2 count :: " + countCombinationSum2(arr2, 5));
+
+        // Large targets, args = [target]
+        int target = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] coins = {1, 2, 5, 10, 20, 50, 100, 200};
+        long start = System.nanoTime();
+        BigInteger exact = countCombinationSumBig(coins, target);
+        long bigMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        long modular = countCombinationSum(coins, target, 1_000_000_007L);
+        long modMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Ways to make " + target + " from " + Arrays.toString(coins) + " :: " + exact
+                + " (BigInteger " + bigMillis + " ms), mod 1e9+7 " + modular + " in " + modMillis + " ms (matches: "
+                + exact.mod(BigInteger.valueOf(1_000_000_007L)).longValue() + ")");
+
+        int[] many = new int[200];
+        for(int i = 0; i < many.length; i++){
+            many[i] = 1 + i % 40;
+        }
+        start = System.nanoTime();
+        long subsets = countCombinationSum2(many, 500, 998_244_353L);
+        System.out.println("Distinct sub-multisets of 200 numbers summing to 500, mod 998244353 :: " + subsets
+                + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        // First few combinations of a huge result, without walking any dead branch
+        int[] odd = {7, 11, 13, 1_000_003};
+        int[] emitted = {0};
+        start = System.nanoTime();
+        forEachCombinationSum(odd, target + 1, 3, (combination, length) -> {
+            emitted[0]++;
+            System.out.println("  combination " + emitted[0] + ": " + length + " values, first " + combination[0]
+                    + ", last " + combination[length - 1]);
+            return true;
+        });
+        System.out.println("First 3 combinations for " + (target + 1) + " in " + (System.nanoTime() - start) / 1_000_000
+                + " ms (of " + countCombinationSumBig(odd, target + 1) + ")");
+    }
+}
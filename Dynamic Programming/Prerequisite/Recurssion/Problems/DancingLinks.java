@@ -0,0 +1,246 @@
+import java.util.Arrays;
+
+public class DancingLinks {
+    /*
+     * Knuth's Algorithm X with dancing links, for exact cover problems:
+     *
+     *   choose a set of rows so that every primary column is covered exactly once and every
+     *   secondary column at most once.
+     *
+     * The sparse 0/1 matrix is a grid of circular doubly linked lists, one horizontal list per row and
+     * one vertical list per column. Instead of node objects the links live in parallel int arrays
+     * (left, right, up, down, column, row); node i is index i, and the column headers are the first
+     * nodes, 1..columns, with 0 as the root.
+     *
+     *  - cover(c)   unlinks column c and every row that uses c; uncover(c) relinks them in reverse
+     *               order. A removed node keeps its own links, so putting it back is O(1).
+     *  - search     picks the primary column with the fewest rows (MRV), tries each of its rows,
+     *               covers the row's other columns, recurses, and uncovers on the way back.
+     *  - Secondary columns are never linked into the root list, so they are never chosen, but
+     *    covering them still removes the rows that would use them twice.
+     *
+     * Time Complexity: exponential in the worst case; cover / uncover are O(1) per node touched.
+     * Space Complexity: O(columns + ones) ints.
+     */
+
+    // rows has the chosen row ids in rows[0 .. size); return false to stop the search
+    public interface SolutionConsumer {
+        boolean accept(int[] rows, int size);
+    }
+
+    private final int primaryColumns;
+    private final int columns;
+    private int[] left, right, up, down, column, rowOf;
+    private final int[] columnSize;
+    private int nodes;
+    private int rowCount;
+
+    private int[] chosen = new int[16];
+    private SolutionConsumer consumer;
+    private long limit;
+    private long found;
+    private boolean stopped;
+
+    public DancingLinks(int primaryColumns, int secondaryColumns){
+
+        if(primaryColumns < 0 || secondaryColumns < 0){
+            throw new IllegalArgumentException("column counts must be >= 0");
+        }
+        this.primaryColumns = primaryColumns;
+        this.columns = primaryColumns + secondaryColumns;
+        int capacity = Math.max(16, 4 * (columns + 1));
+        left = new int[capacity];
+        right = new int[capacity];
+        up = new int[capacity];
+        down = new int[capacity];
+        column = new int[capacity];
+        rowOf = new int[capacity];
+        columnSize = new int[columns + 1];
+
+        for(int c = 0; c <= columns; c++){
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+            rowOf[c] = -1;
+            left[c] = c;
+            right[c] = c;
+        }
+        // Root list: 0 <-> 1 <-> ... <-> primaryColumns <-> 0
+        for(int c = 0; c <= primaryColumns; c++){
+            right[c] = c == primaryColumns ? 0 : c + 1;
+            left[c] = c == 0 ? primaryColumns : c - 1;
+        }
+        nodes = columns + 1;
+    }
+
+    // Adds a row covering the given columns (0-based: primaries first, then secondaries); returns its id
+    public int addRow(int... rowColumns){
+
+        if(rowColumns.length == 0){
+            throw new IllegalArgumentException("a row must cover at least one column");
+        }
+        if(nodes + rowColumns.length > left.length){
+            grow(nodes + rowColumns.length);
+        }
+        int row = rowCount++;
+        int first = nodes;
+        for(int i = 0; i < rowColumns.length; i++){
+            int c = rowColumns[i] + 1;
+            if(c < 1 || c > columns){
+                throw new IllegalArgumentException("column " + rowColumns[i] + " out of range");
+            }
+            int node = nodes++;
+            column[node] = c;
+            rowOf[node] = row;
+            // Append at the bottom of column c
+            up[node] = up[c];
+            down[node] = c;
+            down[up[c]] = node;
+            up[c] = node;
+            columnSize[c]++;
+            // Append at the end of the row
+            if(i == 0){
+                left[node] = node;
+                right[node] = node;
+            } else {
+                left[node] = left[first];
+                right[node] = first;
+                right[left[first]] = node;
+                left[first] = node;
+            }
+        }
+        return row;
+    }
+
+    private void grow(int needed){
+
+        int capacity = Math.max(needed, left.length * 2);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        up = Arrays.copyOf(up, capacity);
+        down = Arrays.copyOf(down, capacity);
+        column = Arrays.copyOf(column, capacity);
+        rowOf = Arrays.copyOf(rowOf, capacity);
+    }
+
+    public int rowCount(){
+        return rowCount;
+    }
+
+    public long count(){
+        return solve((rows, size) -> true, Long.MAX_VALUE);
+    }
+
+    // Row ids of the first solution found, or null
+    public int[] solveFirst(){
+
+        int[][] result = new int[1][];
+        solve((rows, size) -> {
+            result[0] = Arrays.copyOf(rows, size);
+            return false;
+        }, 1);
+        return result[0];
+    }
+
+    // Streams up to limit solutions to consumer; returns how many were reported
+    public long solve(SolutionConsumer consumer, long limit){
+
+        this.consumer = consumer;
+        this.limit = limit;
+        this.found = 0;
+        this.stopped = limit <= 0;
+        if(!stopped){
+            search(0);
+        }
+        this.consumer = null;
+        return found;
+    }
+
+    private void search(int depth){
+
+        if(right[0] == 0){
+            found++;
+            if(!consumer.accept(chosen, depth) || found >= limit){
+                stopped = true;
+            }
+            return;
+        }
+
+        // MRV: primary column with the fewest rows left
+        int best = right[0];
+        for(int c = right[best]; c != 0 && columnSize[best] > 0; c = right[c]){
+            if(columnSize[c] < columnSize[best]){
+                best = c;
+            }
+        }
+        if(columnSize[best] == 0){
+            return;
+        }
+
+        if(depth == chosen.length){
+            chosen = Arrays.copyOf(chosen, depth * 2);
+        }
+        cover(best);
+        for(int r = down[best]; r != best && !stopped; r = down[r]){
+            chosen[depth] = rowOf[r];
+            for(int j = right[r]; j != r; j = right[j]){
+                cover(column[j]);
+            }
+            search(depth + 1);
+            for(int j = left[r]; j != r; j = left[j]){
+                uncover(column[j]);
+            }
+        }
+        uncover(best);
+    }
+
+    private void cover(int c){
+
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for(int i = down[c]; i != c; i = down[i]){
+            for(int j = right[i]; j != i; j = right[j]){
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c){
+
+        for(int i = up[c]; i != c; i = up[i]){
+            for(int j = left[i]; j != i; j = left[j]){
+                columnSize[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+
+    public static void main(String[] args) {
+
+        // Knuth's example: columns A..G, rows {C,E,F} {A,D,G} {B,C,F} {A,D} {B,G} {D,E,G}
+        DancingLinks dlx = new DancingLinks(7, 0);
+        dlx.addRow(2, 4, 5);
+        dlx.addRow(0, 3, 6);
+        dlx.addRow(1, 2, 5);
+        dlx.addRow(0, 3);
+        dlx.addRow(1, 6);
+        dlx.addRow(3, 4, 6);
+        System.out.println("Exact cover rows :: " + Arrays.toString(dlx.solveFirst()) + ", solutions :: " + dlx.count());
+
+        // Secondary column: rows {0} and {1} may each take optional column 2, but not both
+        DancingLinks optional = new DancingLinks(2, 1);
+        optional.addRow(0, 2);
+        optional.addRow(1, 2);
+        optional.addRow(0);
+        optional.addRow(1);
+        optional.solve((rows, size) -> {
+            System.out.println("With a secondary column :: " + Arrays.toString(Arrays.copyOf(rows, size)));
+            return true;
+        }, Long.MAX_VALUE);
+    }
+}
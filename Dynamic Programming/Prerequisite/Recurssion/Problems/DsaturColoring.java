@@ -0,0 +1,374 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DsaturColoring {
+    /*
+     * m-coloring with DSATUR ordering (Brelaz) instead of the fixed 0..n-1 order of MColoring.helper.
+     *
+     *  - Next node: the uncolored node with the most distinct colors among its neighbors (saturation),
+     *    ties broken by the most uncolored neighbors. Hard nodes fail early, near the root.
+     *  - Domains: forbidden[v] is a bitmask of colors used by v's neighbors, so "is color c safe" is one
+     *    bit test instead of MColoring.isSafe's scan over the neighbor list. count[v][c] remembers how
+     *    many neighbors hold c, so a bit can be cleared again on backtrack.
+     *  - Symmetry: a node may only open the first unused color, since all unused colors are interchangeable.
+     *  - Bounds: a clique of size > m means "no" immediately; a greedy DSATUR coloring with <= m colors
+     *    means "yes" immediately. Only the gap between the two needs a search.
+     *  - Parallelism: the top SPLIT_DEPTH levels of the search tree are forked on a ForkJoinPool; the
+     *    first task that finds a coloring publishes it and every other task stops.
+     *
+     * Time Complexity: still exponential in the worst case, O(m^n), but far fewer nodes are expanded.
+     * Space Complexity: O(n * m) for the counts + O(n) per parallel task.
+     *
+     * Colors are 1..m in the result, as in MColoring; m is limited to 64 (one long per domain).
+     */
+
+    private static final int SPLIT_DEPTH = 6;
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final int n;
+    private final int[][] neighbors;
+    private final long[][] adjacency; // adjacency bitsets, used for the clique bound
+    private final boolean selfLoop;
+
+    public DsaturColoring(List<Integer>[] graph) {
+        this(toNeighborArrays(graph));
+    }
+
+    // Compact CSR adjacency: neighbors of v are targets[offsets[v] .. offsets[v+1]-1]
+    public static DsaturColoring fromCsr(int n, int[] offsets, int[] targets) {
+        int[][] neighbors = new int[n][];
+        for (int v = 0; v < n; v++) {
+            neighbors[v] = Arrays.copyOfRange(targets, offsets[v], offsets[v + 1]);
+        }
+        return new DsaturColoring(neighbors);
+    }
+
+    // Edge list {u, v}; one direction per edge is enough
+    public static DsaturColoring fromEdges(int n, int[][] edges) {
+        int[] offsets = new int[n + 1];
+        for (int[] e : edges) offsets[e[0] + 1]++;
+        for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+        int[] targets = new int[edges.length];
+        int[] cursor = Arrays.copyOf(offsets, n);
+        for (int[] e : edges) targets[cursor[e[0]]++] = e[1];
+        return fromCsr(n, offsets, targets);
+    }
+
+    private DsaturColoring(int[][] rawNeighbors) {
+        this.n = rawNeighbors.length;
+        this.adjacency = new long[n][(n + 63) >>> 6];
+        boolean loop = false;
+        for (int v = 0; v < n; v++) {
+            for (int u : rawNeighbors[v]) {
+                if (u == v) {
+                    loop = true;
+                    continue;
+                }
+                // Store both directions and drop duplicates, so one-sided input behaves like MColoring
+                adjacency[v][u >>> 6] |= 1L << u;
+                adjacency[u][v >>> 6] |= 1L << v;
+            }
+        }
+        this.selfLoop = loop;
+        this.neighbors = new int[n][];
+        for (int v = 0; v < n; v++) {
+            int[] list = new int[n];
+            int size = 0;
+            for (int w = 0; w < adjacency[v].length; w++) {
+                long bits = adjacency[v][w];
+                while (bits != 0) {
+                    list[size++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                }
+            }
+            neighbors[v] = Arrays.copyOf(list, size);
+        }
+    }
+
+    private static int[][] toNeighborArrays(List<Integer>[] graph) {
+        int[][] result = new int[graph.length][];
+        for (int v = 0; v < graph.length; v++) {
+            result[v] = graph[v].stream().mapToInt(Integer::intValue).toArray();
+        }
+        return result;
+    }
+
+    // Returns colors 1..m per node, or null when the graph cannot be colored with m colors
+    public int[] color(int m) {
+        return color(m, ForkJoinPool.commonPool());
+    }
+
+    public int[] color(int m, ForkJoinPool pool) {
+        if (m < 1 || m > 64) {
+            throw new IllegalArgumentException("m must be in [1, 64]: " + m);
+        }
+        if (n == 0) return new int[0];
+        if (selfLoop) return null;
+        if (cliqueLowerBound() > m) return null;
+
+        int[] greedy = greedyColoring();
+        if (Arrays.stream(greedy).max().getAsInt() <= m) return greedy;
+
+        AtomicReference<int[]> solution = new AtomicReference<>();
+        pool.invoke(new SearchTask(new State(m), 0, solution));
+        return solution.get();
+    }
+
+    // Size of a clique found greedily from every start node; the chromatic number is at least this
+    public int cliqueLowerBound() {
+        int best = n == 0 ? 0 : 1;
+        long[] candidates = new long[(n + 63) >>> 6];
+        for (int start = 0; start < n; start++) {
+            if (neighbors[start].length < best) continue;
+            System.arraycopy(adjacency[start], 0, candidates, 0, candidates.length);
+            int size = 1;
+            while (true) {
+                // Pick the candidate with the most neighbors among the other candidates
+                int pick = -1, pickDegree = -1;
+                for (int w = 0; w < candidates.length; w++) {
+                    long bits = candidates[w];
+                    while (bits != 0) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        int degree = 0;
+                        for (int x = 0; x < candidates.length; x++) {
+                            degree += Long.bitCount(candidates[x] & adjacency[v][x]);
+                        }
+                        if (degree > pickDegree) {
+                            pick = v;
+                            pickDegree = degree;
+                        }
+                    }
+                }
+                if (pick < 0) break;
+                size++;
+                for (int x = 0; x < candidates.length; x++) {
+                    candidates[x] &= adjacency[pick][x];
+                }
+            }
+            best = Math.max(best, size);
+        }
+        return best;
+    }
+
+    // One DSATUR pass without backtracking: always the smallest free color. Colors 1..k, k not limited to 64.
+    public int[] greedyColoring() {
+        int[] color = new int[n];
+        BitSet[] around = new BitSet[n];       // colors held by neighbors
+        int[] saturation = new int[n];
+        int[] uncoloredDegree = new int[n];
+        for (int v = 0; v < n; v++) {
+            around[v] = new BitSet();
+            uncoloredDegree[v] = neighbors[v].length;
+        }
+        for (int step = 0; step < n; step++) {
+            int v = -1;
+            for (int u = 0; u < n; u++) {
+                if (color[u] != 0) continue;
+                if (v < 0 || saturation[u] > saturation[v]
+                        || (saturation[u] == saturation[v] && uncoloredDegree[u] > uncoloredDegree[v])) {
+                    v = u;
+                }
+            }
+            int c = around[v].nextClearBit(1);
+            color[v] = c;
+            for (int u : neighbors[v]) {
+                if (color[u] != 0) continue;
+                if (!around[u].get(c)) {
+                    around[u].set(c);
+                    saturation[u]++;
+                }
+                uncoloredDegree[u]--;
+            }
+        }
+        return color;
+    }
+
+    private final class State {
+        final int m;
+        final long full;
+        final int[] color;            // 0 = uncolored, otherwise 1..m
+        final long[] forbidden;       // colors used by neighbors, bit c = color c + 1
+        final int[] count;            // count[v * m + c] = neighbors of v holding color c + 1
+        final int[] uncoloredDegree;
+        int colored;
+        int usedColors;
+        long expanded;
+
+        State(int m) {
+            this.m = m;
+            this.full = m == 64 ? -1L : (1L << m) - 1;
+            this.color = new int[n];
+            this.forbidden = new long[n];
+            this.count = new int[n * m];
+            this.uncoloredDegree = new int[n];
+            for (int v = 0; v < n; v++) {
+                uncoloredDegree[v] = neighbors[v].length;
+            }
+        }
+
+        State(State other) {
+            this.m = other.m;
+            this.full = other.full;
+            this.color = other.color.clone();
+            this.forbidden = other.forbidden.clone();
+            this.count = other.count.clone();
+            this.uncoloredDegree = other.uncoloredDegree.clone();
+            this.colored = other.colored;
+            this.usedColors = other.usedColors;
+        }
+
+        // Highest saturation, then highest uncolored degree. -1 if some node has no color left.
+        int select() {
+            int best = -1, bestSaturation = -1, bestDegree = -1;
+            for (int v = 0; v < n; v++) {
+                if (color[v] != 0) continue;
+                if ((forbidden[v] & full) == full) return -1;
+                int saturation = Long.bitCount(forbidden[v]);
+                if (saturation > bestSaturation || (saturation == bestSaturation && uncoloredDegree[v] > bestDegree)) {
+                    best = v;
+                    bestSaturation = saturation;
+                    bestDegree = uncoloredDegree[v];
+                }
+            }
+            return best;
+        }
+
+        // Colors this node may take: free colors, at most one of them never used before
+        long candidates(int v) {
+            long allowed = usedColors + 1 >= m ? full : (1L << (usedColors + 1)) - 1;
+            return ~forbidden[v] & allowed;
+        }
+
+        void assign(int v, int c) {
+            color[v] = c + 1;
+            colored++;
+            if (c == usedColors) usedColors++;
+            long bit = 1L << c;
+            for (int u : neighbors[v]) {
+                if (count[u * m + c]++ == 0) forbidden[u] |= bit;
+                uncoloredDegree[u]--;
+            }
+        }
+
+        void unassign(int v, int c, int previousUsed) {
+            color[v] = 0;
+            colored--;
+            usedColors = previousUsed;
+            long bit = 1L << c;
+            for (int u : neighbors[v]) {
+                if (--count[u * m + c] == 0) forbidden[u] &= ~bit;
+                uncoloredDegree[u]++;
+            }
+        }
+
+        boolean search(AtomicReference<int[]> solution) {
+            if (colored == n) {
+                solution.compareAndSet(null, color.clone());
+                return true;
+            }
+            if (++expanded % CANCEL_CHECK_INTERVAL == 0 && solution.get() != null) {
+                return true;
+            }
+            int v = select();
+            if (v < 0) return false;
+            long candidates = candidates(v);
+            while (candidates != 0) {
+                int c = Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                int previousUsed = usedColors;
+                assign(v, c);
+                if (search(solution)) return true;
+                unassign(v, c, previousUsed);
+            }
+            return false;
+        }
+    }
+
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final State state;
+        final int depth;
+        final AtomicReference<int[]> solution;
+
+        SearchTask(State state, int depth, AtomicReference<int[]> solution) {
+            this.state = state;
+            this.depth = depth;
+            this.solution = solution;
+        }
+
+        @Override
+        protected void compute() {
+            if (solution.get() != null) return;
+            if (depth >= SPLIT_DEPTH || state.colored == n) {
+                state.search(solution);
+                return;
+            }
+            int v = state.select();
+            if (v < 0) return;
+            List<SearchTask> children = new ArrayList<>();
+            long candidates = state.candidates(v);
+            while (candidates != 0) {
+                int c = Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                State child = new State(state);
+                child.assign(v, c);
+                children.add(new SearchTask(child, depth + 1, solution));
+            }
+            invokeAll(children);
+        }
+    }
+
+    // Random graph on n nodes, every pair an edge with the given probability
+    private static int[][] randomEdges(int n, double density, long seed) {
+        java.util.Random random = new java.util.Random(seed);
+        List<int[]> edgeList = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            for (int v = u + 1; v < n; v++) {
+                if (random.nextDouble() < density) edgeList.add(new int[]{u, v});
+            }
+        }
+        return edgeList.toArray(new int[0][]);
+    }
+
+    public static void main(String[] args) {
+
+        int N = 4, M = 3;
+        int[][] edges = { {0,1}, {1,2}, {2,3}, {3,0}, {0,2} };
+
+        DsaturColoring small = fromEdges(N, edges);
+        System.out.println("3-coloring: " + Arrays.toString(small.color(M)));
+        System.out.println("2-coloring: " + Arrays.toString(small.color(2)));
+
+        // Random graph with a few hundred nodes, stored in the compact CSR form
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        double density = args.length > 1 ? Double.parseDouble(args[1]) : 0.1;
+        int[][] randomEdges = randomEdges(n, density, 1);
+        DsaturColoring coloring = fromEdges(n, randomEdges);
+        int lower = coloring.cliqueLowerBound();
+        int upper = Arrays.stream(coloring.greedyColoring()).max().getAsInt();
+        System.out.println(n + " nodes, " + randomEdges.length + " edges: clique >= " + lower + ", greedy <= " + upper);
+        // Near the chromatic number random graphs get hard, so only try one color below greedy
+        int m = Math.max(lower, upper - 1);
+        long start = System.nanoTime();
+        int[] result = coloring.color(m);
+        System.out.println("  " + m + " colors: " + (result != null ? "possible" : "impossible")
+                + " (" + (System.nanoTime() - start) / 1_000_000 + " ms)");
+
+        // Dense graph where greedy needs far more than 64 colors (clique bound 14, greedy 118):
+        // greedy gives up, and the search has to refute m = 15 on its own
+        DsaturColoring dense = fromEdges(1000, randomEdges(1000, 0.5, 1));
+        int denseGreedy = Arrays.stream(dense.greedyColoring()).max().getAsInt();
+        start = System.nanoTime();
+        int[] fifteen = dense.color(15);
+        System.out.println("1000 nodes, density 0.5: clique >= " + dense.cliqueLowerBound() + ", greedy <= " + denseGreedy
+                + ", 15 colors " + (fifteen != null ? "possible" : "impossible") + " ("
+                + (System.nanoTime() - start) / 1_000_000 + " ms)");
+    }
+}
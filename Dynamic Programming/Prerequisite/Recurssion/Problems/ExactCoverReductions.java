@@ -0,0 +1,158 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ExactCoverReductions {
+    /*
+     * Sudoku and N-Queens as exact cover problems for DancingLinks, instead of the hand-written
+     * validity checks of SudokoSolver.isValid and NQueens.helper.
+     *
+     * Sudoku (N x N, N = box * box): one row per (cell, digit), 4 N^2 primary columns
+     *   - cell (r, c) is filled               - row r has digit d
+     *   - column c has digit d                - box b has digit d
+     * A given digit contributes only its own row, so the givens are part of every cover.
+     *
+     * N-Queens (n x n): one row per square (r, c)
+     *   - primary   : row r, column c                  (every row and column has exactly one queen)
+     *   - secondary : diagonal r + c, anti-diagonal r - c + n - 1   (at most one queen each)
+     *
+     * Time Complexity: exponential in the worst case, as for the original solvers.
+     * Space Complexity: O(N^3) links for Sudoku, O(n^2) for N-Queens.
+     */
+
+    // Solved copy of board (flat, row-major, 0 = empty), or null if there is no solution
+    public static int[] solveSudoku(int[] board, int box){
+
+        int n = box * box;
+        List<int[]> rows = new ArrayList<>();
+        DancingLinks dlx = sudoku(board, box, rows);
+        int[] chosen = dlx.solveFirst();
+        if(chosen == null){
+            return null;
+        }
+        int[] solved = new int[n * n];
+        for(int row : chosen){
+            int[] cellDigit = rows.get(row);
+            solved[cellDigit[0]] = cellDigit[1];
+        }
+        return solved;
+    }
+
+    public static long countSudoku(int[] board, int box){
+        return sudoku(board, box, new ArrayList<>()).count();
+    }
+
+    // rows.get(id) = {cell, digit} for every DLX row added
+    private static DancingLinks sudoku(int[] board, int box, List<int[]> rows){
+
+        int n = box * box;
+        if(board.length != n * n){
+            throw new IllegalArgumentException("board must have " + n * n + " cells");
+        }
+        DancingLinks dlx = new DancingLinks(4 * n * n, 0);
+        for(int cell = 0; cell < n * n; cell++){
+            int r = cell / n, c = cell % n, b = (r / box) * box + c / box;
+            int from = board[cell] == 0 ? 1 : board[cell];
+            int to = board[cell] == 0 ? n : board[cell];
+            for(int d = from; d <= to; d++){
+                dlx.addRow(cell,
+                           n * n + r * n + (d - 1),
+                           2 * n * n + c * n + (d - 1),
+                           3 * n * n + b * n + (d - 1));
+                rows.add(new int[]{cell, d});
+            }
+        }
+        return dlx;
+    }
+
+    public static long countQueens(int n){
+        return queens(n).count();
+    }
+
+    // Streams every solution as queens[col] = row, like NQueensBitboard.solve; the array is reused
+    public static long solveQueens(int n, NQueensBitboard.SolutionConsumer consumer){
+
+        int[] queens = new int[n];
+        return queens(n).solve((rows, size) -> {
+            for(int i = 0; i < size; i++){
+                queens[rows[i] % n] = rows[i] / n;
+            }
+            consumer.accept(queens);
+            return true;
+        }, Long.MAX_VALUE);
+    }
+
+    // DLX row id = r * n + c
+    private static DancingLinks queens(int n){
+
+        DancingLinks dlx = new DancingLinks(2 * n, 2 * (2 * n - 1));
+        for(int r = 0; r < n; r++){
+            for(int c = 0; c < n; c++){
+                dlx.addRow(r, n + c, 2 * n + r + c, 2 * n + (2 * n - 1) + r - c + n - 1);
+            }
+        }
+        return dlx;
+    }
+
+    public static void main(String[] args) {
+
+        String hard = "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+        int[] board = BitmaskSudokoSolver.parse(hard);
+
+        int[][] grid = new int[9][9];
+        for(int row = 0; row < 9; row++){
+            System.arraycopy(board, row * 9, grid[row], 0, 9);
+        }
+        long start = System.nanoTime();
+        SudokoSolver.solve(grid);
+        long oldMicros = (System.nanoTime() - start) / 1_000;
+        start = System.nanoTime();
+        int[] byDlx = solveSudoku(board, 3);
+        long dlxMicros = (System.nanoTime() - start) / 1_000;
+        int[] byMasks = board.clone();
+        start = System.nanoTime();
+        new BitmaskSudokoSolver(3).solve(byMasks);
+        long maskMicros = (System.nanoTime() - start) / 1_000;
+        System.out.println("Hard sudoku: SudokoSolver " + oldMicros + " us, DLX " + dlxMicros + " us, bitmask "
+                + maskMicros + " us (same grid: " + (Arrays.equals(byDlx, byMasks)
+                && Arrays.equals(byDlx, Arrays.stream(grid).flatMapToInt(Arrays::stream).toArray())) + ", solutions: "
+                + countSudoku(board, 3) + ")");
+
+        // Sudoku batch: DLX vs bitmask solver on the same random puzzles, args = [puzzles] [maxQueens]
+        int puzzles = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        java.util.SplittableRandom random = new java.util.SplittableRandom(23);
+        int[][] batch = new int[puzzles][];
+        for(int i = 0; i < puzzles; i++){
+            batch[i] = BitmaskSudokoSolver.randomPuzzle(3, 58, random);
+        }
+        for(int round = 0; round < 2; round++){
+            start = System.nanoTime();
+            for(int[] puzzle : batch){
+                solveSudoku(puzzle, 3);
+            }
+            long dlxMillis = (System.nanoTime() - start) / 1_000_000;
+            BitmaskSudokoSolver solver = new BitmaskSudokoSolver(3);
+            start = System.nanoTime();
+            for(int[] puzzle : batch){
+                solver.solve(puzzle.clone());
+            }
+            long maskMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println(puzzles + " random sudokus: DLX " + dlxMillis + " ms, bitmask " + maskMillis + " ms");
+        }
+
+        int maxQueens = args.length > 1 ? Integer.parseInt(args[1]) : 12;
+        for(int n = 8; n <= maxQueens; n++){
+            start = System.nanoTime();
+            int old = NQueens.nQueens(n).size();
+            long oldMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            long dlx = countQueens(n);
+            long dlxMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            long bits = NQueensBitboard.count(n);
+            long bitsMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("n = " + n + " queens: NQueens " + old + " in " + oldMillis + " ms, DLX " + dlx + " in "
+                    + dlxMillis + " ms, bitboard " + bits + " in " + bitsMillis + " ms");
+        }
+    }
+}
@@ -42,6 +42,27 @@ public class MColoring {
         return true;
     }
 
+    // Same question answered by DsaturColoring (saturation order, bitmask domains, parallel search)
+    public static boolean graphColoringDsatur(List<Integer>[] graph, int[] color, int m) {
+
+        int[] result = new DsaturColoring(graph).color(m);
+
+        if(result == null){
+            return false;
+        }
+        System.arraycopy(result, 0, color, 0, result.length);
+        return true;
+    }
+
+    // Minimum number of colors, with an optimal coloring in color[] (see ChromaticNumber, up to 30 nodes)
+    public static int chromaticNumber(List<Integer>[] graph, int[] color) {
+
+        ChromaticNumber.Result result = ChromaticNumber.solve(graph);
+
+        System.arraycopy(result.coloring, 0, color, 0, result.coloring.length);
+        return result.chromaticNumber;
+    }
+
     public static void main(String[] args) {
         int N = 4, M = 3, E = 5;
         int[][] edges = { {0,1}, {1,2}, {2,3}, {3,0}, {0,2} };
@@ -55,5 +76,7 @@ public class MColoring {
         int[] color = new int[N];
         boolean result = graphColoring(graph, color, 0, M);
         System.out.println("Is coloring possible? " + result);
+        System.out.println("Is coloring possible (DSATUR)? " + graphColoringDsatur(graph, new int[N], M));
+        System.out.println("Chromatic number :: " + chromaticNumber(graph, new int[N]));
     }
 }
@@ -0,0 +1,354 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class MazeEngine {
+    /*
+     * Rat-in-a-maze without strings or lists, for grids far larger than RatInMaze can handle.
+     *
+     *  - Grid: open cells are bits of a flat long[], 1 bit per cell instead of an int[][] maze plus an
+     *    int[][] visitedPath. The grid is stored with a border of walls (cell = (row + 1) * stride +
+     *    col + 1, stride = cols + 2), so a neighbor is cell + delta[d] with no bounds checks.
+     *  - All paths: iterative DFS with an explicit stack (cell + next direction per step), so deep
+     *    paths cannot overflow the thread stack. The moves so far sit in one reused char[] buffer and
+     *    every complete path is handed to a consumer as (moves, length), so nothing is allocated per
+     *    step or per path. Moves are tried in RatInMaze's "DLRU" order, so paths come out in the
+     *    same order as RatInMaze.findPath.
+     *  - countPaths(): the same DFS, only counting, into a long.
+     *  - shortestPath(): BFS that stores, per cell, the direction it was entered from in a byte[]
+     *    (0 = not reached). The queue is a growable int ring that only holds the frontier.
+     *
+     * Time Complexity: all paths / count - exponential (every simple path is walked);
+     *                  shortest path     - O(rows * cols)
+     * Space Complexity: rows * cols / 8 bytes for the grid and for the DFS visited set;
+     *                   rows * cols bytes for the BFS parents
+     *
+     * A maze is limited to (rows + 2) * (cols + 2) <= 2^31 - 1 cells.
+     */
+
+    // moves[0 .. length) is a path of 'D', 'L', 'R', 'U'; return false to stop the walk
+    public interface PathConsumer {
+        boolean accept(char[] moves, int length);
+    }
+
+    private static final char[] LETTERS = {'D', 'L', 'R', 'U'};
+
+    private final int rows, cols;
+    private final int stride;
+    private final int cells;          // including the border
+    private final int[] delta;        // cell offset of a move in direction d
+    private final long[] open;
+
+    public MazeEngine(int rows, int cols){
+
+        if(rows < 1 || cols < 1 || (long) (rows + 2) * (cols + 2) > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("maze must have between 1 and about 2^31 cells");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.stride = cols + 2;
+        this.cells = (rows + 2) * stride;
+        this.delta = new int[]{stride, -1, 1, -stride};
+        this.open = new long[(cells + 63) >>> 6];
+    }
+
+    private int cell(int row, int col){
+        if(row < 0 || row >= rows || col < 0 || col >= cols){
+            throw new IndexOutOfBoundsException("cell (" + row + ", " + col + ") is outside the maze");
+        }
+        return (row + 1) * stride + col + 1;
+    }
+
+    // Same input as RatInMaze: 1 = open, 0 = wall
+    public static MazeEngine fromMatrix(int[][] maze){
+
+        MazeEngine engine = new MazeEngine(maze.length, maze[0].length);
+        for(int r = 0; r < maze.length; r++){
+            for(int c = 0; c < maze[r].length; c++){
+                if(maze[r][c] == 1){
+                    engine.setOpen(r, c, true);
+                }
+            }
+        }
+        return engine;
+    }
+
+    // One line per row; '1' or '.' is open, anything else ('0', '#') is a wall
+    public static MazeEngine load(Path file) throws IOException {
+
+        List<long[]> lineBits = new ArrayList<>();
+        int cols = -1;
+        try(BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)){
+            String line;
+            while((line = reader.readLine()) != null){
+                if(line.isEmpty()){
+                    continue;
+                }
+                if(cols == -1){
+                    cols = line.length();
+                } else if(line.length() != cols){
+                    throw new IOException(file + ": row " + lineBits.size() + " has " + line.length()
+                            + " cells, expected " + cols);
+                }
+                long[] bits = new long[(cols + 63) >>> 6];
+                for(int c = 0; c < cols; c++){
+                    char ch = line.charAt(c);
+                    if(ch == '1' || ch == '.'){
+                        bits[c >>> 6] |= 1L << c;
+                    }
+                }
+                lineBits.add(bits);
+            }
+        }
+        if(cols == -1){
+            throw new IOException(file + " is empty");
+        }
+        MazeEngine engine = new MazeEngine(lineBits.size(), cols);
+        for(int r = 0; r < lineBits.size(); r++){
+            long[] bits = lineBits.get(r);
+            for(int c = 0; c < cols; c++){
+                if((bits[c >>> 6] & (1L << c)) != 0){
+                    engine.setOpen(r, c, true);
+                }
+            }
+        }
+        return engine;
+    }
+
+    public void write(Path file) throws IOException {
+
+        char[] line = new char[cols];
+        try(BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)){
+            for(int r = 0; r < rows; r++){
+                for(int c = 0; c < cols; c++){
+                    line[c] = isOpen(r, c) ? '.' : '#';
+                }
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    public int rows(){
+        return rows;
+    }
+
+    public int cols(){
+        return cols;
+    }
+
+    public boolean isOpen(int row, int col){
+        int cell = cell(row, col);
+        return (open[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public void setOpen(int row, int col, boolean isOpen){
+        int cell = cell(row, col);
+        if(isOpen){
+            open[cell >>> 6] |= 1L << cell;
+        } else {
+            open[cell >>> 6] &= ~(1L << cell);
+        }
+    }
+
+    // Neighbor of cell in direction d (0 = D, 1 = L, 2 = R, 3 = U), or -1 for a wall (or the border)
+    private int step(int cell, int d){
+        int next = cell + delta[d];
+        return (open[next >>> 6] & (1L << next)) != 0 ? next : -1;
+    }
+
+    // Every simple path from the top-left to the bottom-right cell, as in RatInMaze.findPath
+    public long forEachPath(PathConsumer consumer){
+        return walk(cell(0, 0), cell(rows - 1, cols - 1), consumer);
+    }
+
+    public long countPaths(){
+        return walk(cell(0, 0), cell(rows - 1, cols - 1), null);
+    }
+
+    public long forEachPath(int fromRow, int fromCol, int toRow, int toCol, PathConsumer consumer){
+        return walk(cell(fromRow, fromCol), cell(toRow, toCol), consumer);
+    }
+
+    private long walk(int source, int target, PathConsumer consumer){
+
+        if((open[source >>> 6] & (1L << source)) == 0 || (open[target >>> 6] & (1L << target)) == 0){
+            return 0;
+        }
+        char[] moves = new char[64];
+        if(source == target){
+            if(consumer != null){
+                consumer.accept(moves, 0);
+            }
+            return 1;
+        }
+
+        long[] visited = new long[open.length];
+        int[] cellStack = new int[64];
+        byte[] nextDirection = new byte[64];
+        int depth = 0;
+        cellStack[0] = source;
+        visited[source >>> 6] |= 1L << source;
+        long found = 0;
+
+        while(depth >= 0){
+            int cell = cellStack[depth];
+            int d = nextDirection[depth];
+            if(d == 4){
+                visited[cell >>> 6] &= ~(1L << cell);
+                depth--;
+                continue;
+            }
+            nextDirection[depth]++;
+
+            int next = step(cell, d);
+            if(next < 0 || (visited[next >>> 6] & (1L << next)) != 0){
+                continue;
+            }
+            if(depth == moves.length){
+                moves = Arrays.copyOf(moves, depth * 2);
+            }
+            moves[depth] = LETTERS[d];
+            if(next == target){
+                found++;
+                if(consumer != null && !consumer.accept(moves, depth + 1)){
+                    return found;
+                }
+                continue;
+            }
+            if(depth + 1 == cellStack.length){
+                cellStack = Arrays.copyOf(cellStack, cellStack.length * 2);
+                nextDirection = Arrays.copyOf(nextDirection, nextDirection.length * 2);
+            }
+            depth++;
+            cellStack[depth] = next;
+            nextDirection[depth] = 0;
+            visited[next >>> 6] |= 1L << next;
+        }
+        return found;
+    }
+
+    public String shortestPath(){
+        return shortestPath(0, 0, rows - 1, cols - 1);
+    }
+
+    // Moves of one shortest path ("" when source == target), or null if the target is unreachable
+    public String shortestPath(int fromRow, int fromCol, int toRow, int toCol){
+
+        int source = cell(fromRow, fromCol), target = cell(toRow, toCol);
+        if((open[source >>> 6] & (1L << source)) == 0 || (open[target >>> 6] & (1L << target)) == 0){
+            return null;
+        }
+
+        byte[] enteredBy = new byte[cells];         // direction + 1 of the move into the cell
+        enteredBy[source] = 5;                      // marks the source as reached
+        int[] queue = new int[1 << 12];
+        int head = 0, size = 0;
+        queue[size++] = source;
+
+        while(size > 0 && enteredBy[target] == 0){
+            int cell = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            size--;
+            for(int d = 0; d < 4; d++){
+                int next = step(cell, d);
+                if(next < 0 || enteredBy[next] != 0){
+                    continue;
+                }
+                enteredBy[next] = (byte) (d + 1);
+                if(size == queue.length){
+                    queue = unwrap(queue, head, size);
+                    head = 0;
+                }
+                queue[(head + size) & (queue.length - 1)] = next;
+                size++;
+            }
+        }
+        if(enteredBy[target] == 0){
+            return null;
+        }
+
+        int length = 0;
+        for(int cell = target; cell != source; cell -= delta[enteredBy[cell] - 1]){
+            length++;
+        }
+        char[] moves = new char[length];
+        for(int cell = target; cell != source; ){
+            int d = enteredBy[cell] - 1;
+            moves[--length] = LETTERS[d];
+            cell -= delta[d];
+        }
+        return new String(moves);
+    }
+
+    // Doubles a full ring buffer, laying its contents out from index 0
+    private static int[] unwrap(int[] queue, int head, int size){
+
+        int[] grown = new int[queue.length * 2];
+        int firstPart = Math.min(size, queue.length - head);
+        System.arraycopy(queue, head, grown, 0, firstPart);
+        System.arraycopy(queue, 0, grown, firstPart, size - firstPart);
+        return grown;
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        int[][] maze = {
+            {1,0,0,0},
+            {1,1,0,1},
+            {1,1,0,0},
+            {0,1,1,1}
+        };
+        MazeEngine engine = fromMatrix(maze);
+        List<String> paths = new ArrayList<>();
+        engine.forEachPath((moves, length) -> paths.add(new String(moves, 0, length)));
+        System.out.println(paths + " (RatInMaze: " + RatInMaze.findPath(maze, 4, 0, 0) + "), shortest "
+                + engine.shortestPath());
+
+        // Open grids: RatInMaze's List<String> vs streaming count
+        for(int n = 4; n <= 6; n++){
+            int[][] openGrid = new int[n][n];
+            for(int[] row : openGrid){
+                Arrays.fill(row, 1);
+            }
+            long start = System.nanoTime();
+            int old = RatInMaze.findPath(openGrid, n, 0, 0).size();
+            long oldMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            long count = fromMatrix(openGrid).countPaths();
+            long countMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println(n + "x" + n + " open grid: RatInMaze " + old + " paths in " + oldMillis
+                    + " ms, countPaths " + count + " in " + countMillis + " ms");
+        }
+
+        // Large random maze written to a file, loaded back, then BFS, args = [side]
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 4_000;
+        java.util.SplittableRandom random = new java.util.SplittableRandom(24);
+        MazeEngine big = new MazeEngine(side, side);
+        for(int r = 0; r < side; r++){
+            for(int c = 0; c < side; c++){
+                big.setOpen(r, c, random.nextInt(100) >= 25);
+            }
+        }
+        big.setOpen(0, 0, true);
+        big.setOpen(side - 1, side - 1, true);
+        Path file = Files.createTempFile("maze", ".txt");
+        big.write(file);
+        long start = System.nanoTime();
+        MazeEngine loaded = load(file);
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        String shortest = loaded.shortestPath();
+        long bfsMillis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(side + "x" + side + " maze (" + Files.size(file) / (1 << 20) + " MB file): loaded in "
+                + loadMillis + " ms, BFS in " + bfsMillis + " ms, shortest path "
+                + (shortest == null ? "none" : shortest.length() + " moves"));
+        Files.delete(file);
+    }
+}
@@ -1,19 +1,29 @@
 public class MultirecurssionCall {
 
     //fibonacci
+    // Each call still makes two recursive calls, but they go through a Memoizer
+    // (Dynamic Programming/Overlapping Subproblems), so every n is computed only once.
+    // Compile with that directory on the sourcepath, from this directory:
+    //   javac -sourcepath ".:../../../Overlapping Subproblems" MultirecurssionCall.java
 
-    public static int nthFibonacci(int n){
+    private static final Memoizer FIBONACCI = new Memoizer(64, (n, memo) -> {
 
         if(n <= 1){
             return n;
         }
 
-        return nthFibonacci(n-1) + nthFibonacci(n-2);
+        return memo.get(n-1) + memo.get(n-2);
+    });
+
+    public static int nthFibonacci(int n){
+
+        return Math.toIntExact(FIBONACCI.get(n));
     }
 
     public static void main(String[] args) {
 
         System.out.println("Nth fibonacci number :: "+nthFibonacci(4));
+        System.out.println("Nth fibonacci number :: "+nthFibonacci(46)+" ("+FIBONACCI+")");
     }
-    
+
 }
@@ -0,0 +1,223 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+public class NQueensBitboard {
+    /*
+     * N-Queens on bitboards. Like NQueens.helper it fills the board column by column; bit r of a mask
+     * stands for row r of the current column:
+     *
+     *  - rows    : rows already holding a queen                       (NQueens.leftRow)
+     *  - down    : rows attacked along "\" diagonals, shifted one row down per column   (upperDiagonal)
+     *  - up      : rows attacked along "/" diagonals, shifted one row up per column     (lowerDiagonal)
+     *
+     *    free = ~(rows | down | up) & full, and the next free row is free & -free (lowest set bit),
+     * so a column costs a few word operations instead of a scan over n rows and three arrays.
+     *
+     *  - Symmetry: mirroring the board top to bottom maps solutions to solutions, so the first column
+     *    only tries the top half of the rows and counts twice. For odd n the middle row in the first
+     *    column is its own mirror; there the second column is limited to the top half instead.
+     *  - Parallelism: every (first column, second column) placement is one fork/join task.
+     *  - count() allocates nothing per solution. solve() reports each solution as int[] queens with
+     *    queens[col] = row, through a callback; the array is reused, so copy it to keep it.
+     *
+     * Time Complexity: O(n!) in the worst case, but only valid partial boards are expanded.
+     * Space Complexity: O(n) per task (recursion depth n).
+     *
+     * n is limited to 63 (one long per mask), far beyond what can be counted in practice.
+     */
+
+    public interface SolutionConsumer {
+        void accept(int[] queens);
+    }
+
+    static final int MAX_N = 63;
+
+    public static long count(int n){
+        return count(n, ForkJoinPool.commonPool());
+    }
+
+    public static long count(int n, ForkJoinPool pool){
+
+        check(n);
+        if(n <= 1){
+            return 1;
+        }
+        long full = (1L << n) - 1;
+        List<CountTask> tasks = new ArrayList<>();
+        int half = n / 2;
+        for(int row = 0; row < half; row++){
+            addSecondColumn(tasks, 1L << row, full, 2);
+        }
+        if((n & 1) != 0){
+            // Middle row: mirror symmetry moves to the second column
+            long bit = 1L << half;
+            long free = full & ~(bit | (bit << 1) | (bit >>> 1)) & ((1L << half) - 1);
+            for(; free != 0; free &= free - 1){
+                long second = free & -free;
+                tasks.add(new CountTask(bit | second, ((bit << 1 | second) << 1) & full, (bit >>> 1 | second) >>> 1, full, 2));
+            }
+        }
+        // Fork the tasks from inside the pool, so invokeAll spreads them over its workers
+        return pool.invoke(ForkJoinTask.adapt(() -> {
+            long total = 0;
+            for(CountTask task : ForkJoinTask.invokeAll(tasks)){
+                total += task.join();
+            }
+            return total;
+        }));
+    }
+
+    private static void addSecondColumn(List<CountTask> tasks, long first, long full, long multiplier){
+
+        long down = (first << 1) & full, up = first >>> 1;
+        for(long free = full & ~(first | down | up); free != 0; free &= free - 1){
+            long second = free & -free;
+            tasks.add(new CountTask(first | second, ((down | second) << 1) & full, (up | second) >>> 1, full, multiplier));
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long rows, down, up, full, multiplier;
+
+        CountTask(long rows, long down, long up, long full, long multiplier){
+            this.rows = rows;
+            this.down = down;
+            this.up = up;
+            this.full = full;
+            this.multiplier = multiplier;
+        }
+
+        @Override
+        protected Long compute(){
+            return multiplier * countFrom(rows, down, up, full);
+        }
+    }
+
+    private static long countFrom(long rows, long down, long up, long full){
+
+        if(rows == full){
+            return 1;
+        }
+        long count = 0;
+        for(long free = full & ~(rows | down | up); free != 0; free &= free - 1){
+            long bit = free & -free;
+            count += countFrom(rows | bit, ((down | bit) << 1) & full, (up | bit) >>> 1, full);
+        }
+        return count;
+    }
+
+    // Every solution, sequentially on the calling thread; returns how many were reported
+    public static long solve(int n, SolutionConsumer consumer){
+
+        check(n);
+        Enumeration enumeration = new Enumeration(n, consumer);
+        if(n <= 1){
+            // The empty board and the single queen are their own mirror images
+            consumer.accept(enumeration.queens);
+            return 1;
+        }
+        long full = (1L << n) - 1;
+        int half = n / 2;
+        for(int row = 0; row < half; row++){
+            long bit = 1L << row;
+            enumeration.queens[0] = row;
+            enumeration.place(1, bit, (bit << 1) & full, bit >>> 1, full, -1);
+        }
+        if((n & 1) != 0){
+            long bit = 1L << half;
+            enumeration.queens[0] = half;
+            enumeration.place(1, bit, (bit << 1) & full, bit >>> 1, full, half);
+        }
+        return enumeration.reported;
+    }
+
+    private static final class Enumeration {
+        final int n;
+        final int[] queens;
+        final int[] mirrored;
+        final SolutionConsumer consumer;
+        long reported;
+
+        Enumeration(int n, SolutionConsumer consumer){
+            this.n = n;
+            this.queens = new int[n];
+            this.mirrored = new int[n];
+            this.consumer = consumer;
+        }
+
+        // secondLimit >= 0 restricts column 1 to rows below it (odd n, middle first row)
+        void place(int col, long rows, long down, long up, long full, int secondLimit){
+
+            if(col == n){
+                consumer.accept(queens);
+                for(int c = 0; c < n; c++){
+                    mirrored[c] = n - 1 - queens[c];
+                }
+                consumer.accept(mirrored);
+                reported += 2;
+                return;
+            }
+            long free = full & ~(rows | down | up);
+            if(col == 1 && secondLimit >= 0){
+                free &= (1L << secondLimit) - 1;
+            }
+            for(; free != 0; free &= free - 1){
+                long bit = free & -free;
+                queens[col] = Long.numberOfTrailingZeros(bit);
+                place(col + 1, rows | bit, ((down | bit) << 1) & full, (up | bit) >>> 1, full, -1);
+            }
+        }
+    }
+
+    // Same layout as NQueens.nQueens: one String per row, 'Q' where the queen of a column stands
+    public static List<String> toBoard(int[] queens){
+
+        int n = queens.length;
+        List<String> board = new ArrayList<>(n);
+        for(int row = 0; row < n; row++){
+            char[] line = new char[n];
+            for(int col = 0; col < n; col++){
+                line[col] = queens[col] == row ? 'Q' : '.';
+            }
+            board.add(new String(line));
+        }
+        return board;
+    }
+
+    private static void check(int n){
+        if(n < 0 || n > MAX_N){
+            throw new IllegalArgumentException("n must be between 0 and " + MAX_N);
+        }
+    }
+
+    public static void main(String[] args) {
+
+        int n = 4;
+        List<List<String>> res = new ArrayList<>();
+        solve(n, queens -> res.add(toBoard(queens)));
+        System.out.println(res);
+
+        // Old solver vs bitboard up to n = 12, then bitboard counts up to maxN, args = [maxN]
+        for(int size = 8; size <= 12; size++){
+            long start = System.nanoTime();
+            int old = NQueens.nQueens(size).size();
+            long oldMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            long fast = count(size);
+            long fastMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("n = " + size + ": NQueens " + old + " in " + oldMillis + " ms, bitboard " + fast
+                    + " in " + fastMillis + " ms");
+        }
+        int maxN = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        for(int size = 13; size <= maxN; size++){
+            long start = System.nanoTime();
+            long fast = count(size);
+            System.out.println("n = " + size + ": " + fast + " solutions in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package Respositories.Java.Graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/*
+ * Lock-free union-find: many threads may call union(), find() and connected() at the same time.
+ *
+ * The parent array is an AtomicIntegerArray and every change is a single CAS:
+ *   - find() uses path halving: x.parent is CAS'ed from p to p.parent while walking up. A failed CAS
+ *     only means someone else already shortened the path.
+ *   - union() links one root under the other with CAS(parent[root], root, otherRoot), and retries
+ *     when the root stopped being a root in the meantime.
+ *
+ * Rank cannot be kept consistent with the parent in one CAS, so roots are linked by a fixed
+ * pseudo-random priority per vertex (Jayanti and Tarjan's randomized linking). It gives the same
+ * expected O(log n) tree height as union by rank.
+ *
+ * labelComponents() is the bulk mode: it unions every edge of a graph in parallel and returns the
+ * component id of every vertex as an int[].
+ */
+public final class ConcurrentUnionFind {
+
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentUnionFind(int n){
+        parent = new AtomicIntegerArray(n);
+        for(int i = 0; i < n; i++){
+            parent.set(i, i);
+        }
+    }
+
+    public int size(){
+        return parent.length();
+    }
+
+    public int find(int x){
+        while(true){
+            int p = parent.get(x);
+            if(p == x) return x;
+            int grandParent = parent.get(p);
+            if(p != grandParent){
+                parent.compareAndSet(x, p, grandParent);
+            }
+            x = grandParent;
+        }
+    }
+
+    // Returns false when a and b were already connected
+    public boolean union(int a, int b){
+        while(true){
+            int rootA = find(a);
+            int rootB = find(b);
+            if(rootA == rootB) return false;
+
+            // The root with lower priority goes under the other one
+            if(lowerPriority(rootA, rootB)){
+                if(parent.compareAndSet(rootA, rootA, rootB)) return true;
+            } else {
+                if(parent.compareAndSet(rootB, rootB, rootA)) return true;
+            }
+        }
+    }
+
+    public boolean connected(int a, int b){
+        while(true){
+            int rootA = find(a);
+            int rootB = find(b);
+            if(rootA == rootB) return true;
+            // rootA still a root means the two were separate at this instant
+            if(parent.get(rootA) == rootA) return false;
+        }
+    }
+
+    private static boolean lowerPriority(int a, int b){
+        int priorityA = mix(a), priorityB = mix(b);
+        return priorityA < priorityB || (priorityA == priorityB && a < b);
+    }
+
+    // Murmur3 finalizer: a fixed pseudo-random permutation of the vertex ids
+    private static int mix(int x){
+        x ^= x >>> 16;
+        x *= 0x85ebca6b;
+        x ^= x >>> 13;
+        x *= 0xc2b2ae35;
+        x ^= x >>> 16;
+        return x;
+    }
+
+    /*
+     * Component id per vertex, numbered 0..k-1 in order of each component's smallest vertex.
+     * Call it once the unions are done; concurrent unions may or may not be reflected.
+     */
+    public int[] componentIds(){
+        int n = parent.length();
+        int[] roots = new int[n];
+        IntStream.range(0, n).parallel().forEach(v -> roots[v] = find(v));
+
+        int[] idOfRoot = new int[n];
+        Arrays.fill(idOfRoot, -1);
+        int next = 0;
+        for(int v = 0; v < n; v++){
+            if(idOfRoot[roots[v]] < 0) idOfRoot[roots[v]] = next++;
+            roots[v] = idOfRoot[roots[v]];
+        }
+        return roots;
+    }
+
+    // Components of the adjacency list used in GraphRepresentation
+    public static int[] labelComponents(List<List<Integer>> adjList){
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(adjList.size());
+        IntStream.range(0, adjList.size()).parallel().forEach(u -> {
+            for(int v : adjList.get(u)){
+                uf.union(u, v);
+            }
+        });
+        return uf.componentIds();
+    }
+
+    // Components of a CsrGraph, edges treated as undirected
+    public static int[] labelComponents(CsrGraph graph){
+        ConcurrentUnionFind uf = new ConcurrentUnionFind(graph.vertexCount());
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        IntStream.range(0, graph.vertexCount()).parallel().forEach(u -> {
+            for(int e = offsets[u], end = offsets[u + 1]; e < end; e++){
+                uf.union(u, targets[e]);
+            }
+        });
+        return uf.componentIds();
+    }
+
+    /*
+     * Every thread applies the same random unions, each from a different starting point, so threads
+     * keep merging the same pairs at the same time. Each merge must be reported by exactly one union()
+     * call, every pair must end up connected, and the labels must match the sequential UnionFind.
+     * Throws IllegalStateException otherwise.
+     */
+    static void verifyConcurrent(int threads, int vertices, int unions) throws InterruptedException {
+        int[] us = new int[unions], vs = new int[unions];
+        java.util.SplittableRandom random = new java.util.SplittableRandom(3);
+        for(int i = 0; i < unions; i++){
+            us[i] = random.nextInt(vertices);
+            vs[i] = random.nextInt(vertices);
+        }
+
+        ConcurrentUnionFind concurrent = new ConcurrentUnionFind(vertices);
+        LongAdder merges = new LongAdder();
+        Thread[] workers = new Thread[threads];
+        for(int t = 0; t < threads; t++){
+            final int offset = (int) ((long) t * unions / threads);
+            workers[t] = new Thread(() -> {
+                for(int i = 0; i < unions; i++){
+                    int e = (i + offset) % unions;
+                    if(concurrent.union(us[e], vs[e])) merges.increment();
+                }
+            });
+            workers[t].start();
+        }
+        for(Thread worker : workers) worker.join();
+
+        UnionFind sequential = new UnionFind(vertices);
+        for(int i = 0; i < unions; i++) sequential.union(us[i], vs[i]);
+        if(merges.sum() != vertices - sequential.componentCount()){
+            throw new IllegalStateException(merges.sum() + " successful unions for "
+                    + (vertices - sequential.componentCount()) + " merges");
+        }
+        for(int i = 0; i < unions; i++){
+            if(!concurrent.connected(us[i], vs[i])){
+                throw new IllegalStateException(us[i] + " and " + vs[i] + " not connected");
+            }
+        }
+        if(!Arrays.equals(concurrent.componentIds(), sequential.componentIds())){
+            throw new IllegalStateException("component labels differ from the sequential UnionFind");
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        // Adjacency list in the GraphRepresentation shape: 1-2-3 connected, 4-5 connected, 0 and 6 alone
+        int n = 7;
+        List<List<Integer>> adjList = new ArrayList<>();
+        for(int i = 0; i < n; i++){
+            adjList.add(new ArrayList<>());
+        }
+        int[][] edges = { {1, 2}, {2, 3}, {4, 5} };
+        for(int[] edge : edges){
+            adjList.get(edge[0]).add(edge[1]);
+            adjList.get(edge[1]).add(edge[0]);
+        }
+        System.out.println("Component ids: " + Arrays.toString(labelComponents(adjList)));
+
+        int checkThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        verifyConcurrent(checkThreads, 1 << 16, 1 << 16);
+        System.out.println(checkThreads + " threads: every merge reported once, labels match the sequential UnionFind");
+
+        // Concurrent unions from several threads, checked against the sequential UnionFind
+        int vertices = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int unions = args.length > 1 ? Integer.parseInt(args[1]) : 1_500_000;
+        int[] us = new int[unions], vs = new int[unions];
+        java.util.SplittableRandom random = new java.util.SplittableRandom(11);
+        for(int i = 0; i < unions; i++){
+            us[i] = random.nextInt(vertices);
+            vs[i] = random.nextInt(vertices);
+        }
+
+        long start = System.nanoTime();
+        ConcurrentUnionFind concurrent = new ConcurrentUnionFind(vertices);
+        int threads = Runtime.getRuntime().availableProcessors();
+        Thread[] workers = new Thread[threads];
+        for(int t = 0; t < threads; t++){
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                for(int i = id; i < unions; i += threads) concurrent.union(us[i], vs[i]);
+            });
+            workers[t].start();
+        }
+        for(Thread worker : workers) worker.join();
+        int[] concurrentIds = concurrent.componentIds();
+        long concurrentMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        UnionFind sequential = new UnionFind(vertices);
+        for(int i = 0; i < unions; i++) sequential.union(us[i], vs[i]);
+        int[] sequentialIds = sequential.componentIds();
+        long sequentialMillis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println(threads + " threads: " + concurrentMillis + " ms, sequential: " + sequentialMillis
+                + " ms, components " + sequential.componentCount()
+                + ", same labels: " + Arrays.equals(concurrentIds, sequentialIds));
+    }
+}
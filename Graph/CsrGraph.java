@@ -0,0 +1,304 @@
+package Respositories.Java.Graph;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Compressed Sparse Row (CSR) graph.
+ *
+ * Instead of a List<List<Integer>> (one boxed Integer per neighbor and one ArrayList per vertex),
+ * the whole adjacency is stored in two flat arrays:
+ *
+ *   offsets[v] .. offsets[v+1]-1  -> positions of v's edges inside targets[]
+ *   targets[e]                    -> the neighbor at the other end of edge e
+ *
+ * Example for edges 1-2, 2-3, 1-3 (undirected, n = 4):
+ *
+ *   offsets = [0, 0, 2, 4, 6]
+ *   targets = [2, 3, 1, 3, 2, 1]
+ *
+ * Edge weights are optional and live in a parallel int[] or float[] indexed by the edge position.
+ *
+ * Time and Space Complexity:
+ *   - Build: O(n + m) (counting sort of the edge list by source vertex)
+ *   - Neighbors of v: O(degree(v)), no allocation
+ *   - Space: 4 * (n + 1) + 4 * m bytes (+ 4 * m for weights)
+ *
+ * The graph is immutable once built. The arrays are package-private so the traversal engines
+ * in this package can loop over them directly; they must never be written to.
+ */
+public final class CsrGraph {
+
+    final int vertexCount;
+    final int[] offsets;
+    final int[] targets;
+    final int[] intWeights;     // null when the graph has no int weights
+    final float[] floatWeights; // null when the graph has no float weights
+
+    private CsrGraph(int vertexCount, int[] offsets, int[] targets, int[] intWeights, float[] floatWeights){
+        this.vertexCount = vertexCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.intWeights = intWeights;
+        this.floatWeights = floatWeights;
+    }
+
+    public int vertexCount(){
+        return vertexCount;
+    }
+
+    public int edgeCount(){
+        return targets.length;
+    }
+
+    public int degree(int v){
+        return offsets[v + 1] - offsets[v];
+    }
+
+    // First edge position of v (inclusive)
+    public int edgeStart(int v){
+        return offsets[v];
+    }
+
+    // Last edge position of v (exclusive)
+    public int edgeEnd(int v){
+        return offsets[v + 1];
+    }
+
+    public int target(int edge){
+        return targets[edge];
+    }
+
+    public boolean hasIntWeights(){
+        return intWeights != null;
+    }
+
+    public boolean hasFloatWeights(){
+        return floatWeights != null;
+    }
+
+    public int intWeight(int edge){
+        if(intWeights == null){
+            throw new IllegalStateException("graph has no int weights");
+        }
+        return intWeights[edge];
+    }
+
+    public float floatWeight(int edge){
+        if(floatWeights == null){
+            throw new IllegalStateException("graph has no float weights");
+        }
+        return floatWeights[edge];
+    }
+
+    // Calls the visitor for every neighbor of v. A non-capturing visitor allocates nothing.
+    public void forEachNeighbor(int v, NeighborVisitor visitor){
+        for(int e = offsets[v], end = offsets[v + 1]; e < end; e++){
+            visitor.visit(v, targets[e], e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface NeighborVisitor {
+        void visit(int source, int target, int edge);
+    }
+
+    // Approximate heap bytes held by this graph (array headers included)
+    public long memoryFootprintBytes(){
+        long bytes = arrayBytes(offsets.length, 4) + arrayBytes(targets.length, 4);
+        if(intWeights != null) bytes += arrayBytes(intWeights.length, 4);
+        if(floatWeights != null) bytes += arrayBytes(floatWeights.length, 4);
+        return bytes;
+    }
+
+    // Approximate heap bytes the same graph takes as List<List<Integer>> (ArrayList rows, boxed Integers)
+    public long adjacencyListFootprintBytes(){
+        long outer = 16 + 24 + arrayBytes(vertexCount, 4);      // ArrayList + Object[] of rows
+        long rows = (long) vertexCount * (24 + 16);             // ArrayList + empty Object[] per row
+        long refs = (long) targets.length * 4;                  // references inside each row's Object[]
+        long boxes = (long) targets.length * 16;                // one Integer per neighbor
+        return outer + rows + refs + boxes;
+    }
+
+    public String footprintReport(){
+        long csr = memoryFootprintBytes();
+        long lists = adjacencyListFootprintBytes();
+        return "CsrGraph[vertices=" + vertexCount + ", edges=" + targets.length
+                + ", weights=" + (intWeights != null ? "int" : floatWeights != null ? "float" : "none")
+                + "] csr=" + csr + " bytes, List<List<Integer>>~" + lists + " bytes ("
+                + String.format("%.1f", (double) lists / csr) + "x)";
+    }
+
+    private static long arrayBytes(long length, int elementSize){
+        return 16 + length * elementSize;
+    }
+
+    // Converts the adjacency list used in GraphRepresentation (index 0..n) into CSR form
+    public static CsrGraph fromAdjacencyList(List<List<Integer>> adjList){
+        int n = adjList.size();
+        int[] offsets = new int[n + 1];
+        for(int i = 0; i < n; i++){
+            offsets[i + 1] = offsets[i] + adjList.get(i).size();
+        }
+        int[] targets = new int[offsets[n]];
+        for(int i = 0; i < n; i++){
+            int e = offsets[i];
+            for(int neighbor : adjList.get(i)){
+                targets[e++] = neighbor;
+            }
+        }
+        return new CsrGraph(n, offsets, targets, null, null);
+    }
+
+    public static Builder builder(int vertexCount){
+        return new Builder(vertexCount);
+    }
+
+    /*
+     * Collects an edge list in flat growable arrays and turns it into CSR with a counting sort.
+     * A builder can be used for one build() only.
+     */
+    public static final class Builder {
+
+        private static final int NONE = 0, INT = 1, FLOAT = 2;
+        // Largest array the VM reliably allocates
+        private static final int MAX_EDGES = Integer.MAX_VALUE - 8;
+
+        private final int vertexCount;
+        private int[] sources = new int[16];
+        private int[] destinations = new int[16];
+        private int[] intWeights;
+        private float[] floatWeights;
+        private int weightKind = NONE;
+        private int size;
+        private boolean built;
+
+        private Builder(int vertexCount){
+            if(vertexCount < 0){
+                throw new IllegalArgumentException("vertexCount must be >= 0: " + vertexCount);
+            }
+            this.vertexCount = vertexCount;
+        }
+
+        public Builder addEdge(int u, int v){
+            checkWeightKind(NONE);
+            append(u, v);
+            return this;
+        }
+
+        public Builder addEdge(int u, int v, int weight){
+            checkWeightKind(INT);
+            append(u, v);
+            intWeights[size - 1] = weight;
+            return this;
+        }
+
+        public Builder addEdge(int u, int v, float weight){
+            checkWeightKind(FLOAT);
+            append(u, v);
+            floatWeights[size - 1] = weight;
+            return this;
+        }
+
+        // Adds u -> v and v -> u
+        public Builder addUndirectedEdge(int u, int v){
+            return addEdge(u, v).addEdge(v, u);
+        }
+
+        public Builder addUndirectedEdge(int u, int v, int weight){
+            return addEdge(u, v, weight).addEdge(v, u, weight);
+        }
+
+        public Builder addUndirectedEdge(int u, int v, float weight){
+            return addEdge(u, v, weight).addEdge(v, u, weight);
+        }
+
+        public CsrGraph build(){
+            if(built){
+                throw new IllegalStateException("builder already used");
+            }
+            built = true;
+
+            int[] offsets = new int[vertexCount + 1];
+            for(int i = 0; i < size; i++){
+                offsets[sources[i] + 1]++;
+            }
+            for(int v = 0; v < vertexCount; v++){
+                offsets[v + 1] += offsets[v];
+            }
+
+            // Stable placement keeps each vertex's neighbors in insertion order
+            int[] cursor = Arrays.copyOf(offsets, vertexCount);
+            int[] targets = new int[size];
+            int[] iw = weightKind == INT ? new int[size] : null;
+            float[] fw = weightKind == FLOAT ? new float[size] : null;
+            for(int i = 0; i < size; i++){
+                int e = cursor[sources[i]]++;
+                targets[e] = destinations[i];
+                if(iw != null) iw[e] = intWeights[i];
+                if(fw != null) fw[e] = floatWeights[i];
+            }
+
+            sources = destinations = intWeights = null;
+            floatWeights = null;
+            return new CsrGraph(vertexCount, offsets, targets, iw, fw);
+        }
+
+        private void checkWeightKind(int kind){
+            if(size == 0 && weightKind == NONE){
+                weightKind = kind;
+                if(kind == INT) intWeights = new int[sources.length];
+                if(kind == FLOAT) floatWeights = new float[sources.length];
+            } else if(weightKind != kind){
+                throw new IllegalStateException("cannot mix weighted and unweighted edges, or int and float weights");
+            }
+        }
+
+        private void append(int u, int v){
+            if(built){
+                throw new IllegalStateException("builder already used");
+            }
+            if(u < 0 || u >= vertexCount || v < 0 || v >= vertexCount){
+                throw new IndexOutOfBoundsException("edge " + u + " -> " + v + " outside [0, " + vertexCount + ")");
+            }
+            if(size == sources.length){
+                if(size == MAX_EDGES){
+                    throw new IllegalStateException("builder is full: at most " + MAX_EDGES + " edges");
+                }
+                int capacity = Math.max(size + 1, (int) Math.min(MAX_EDGES, size * 2L));
+                sources = Arrays.copyOf(sources, capacity);
+                destinations = Arrays.copyOf(destinations, capacity);
+                if(intWeights != null) intWeights = Arrays.copyOf(intWeights, capacity);
+                if(floatWeights != null) floatWeights = Arrays.copyOf(floatWeights, capacity);
+            }
+            sources[size] = u;
+            destinations[size] = v;
+            size++;
+        }
+    }
+
+    public static void main(String[] args) {
+
+        CsrGraph graph = CsrGraph.builder(4)
+                .addUndirectedEdge(1, 2)
+                .addUndirectedEdge(2, 3)
+                .addUndirectedEdge(1, 3)
+                .build();
+
+        for(int v = 1; v < graph.vertexCount(); v++){
+            System.out.print(v + " -> ");
+            for(int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++){
+                System.out.print(graph.target(e) + " ");
+            }
+            System.out.println();
+        }
+
+        CsrGraph weighted = CsrGraph.builder(3)
+                .addEdge(0, 1, 2.5f)
+                .addEdge(1, 2, 1.0f)
+                .build();
+        weighted.forEachNeighbor(0, (u, v, e) -> System.out.println(u + " -> " + v + " (w=" + weighted.floatWeight(e) + ")"));
+
+        System.out.println(graph.footprintReport());
+    }
+}
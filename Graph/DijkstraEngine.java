@@ -0,0 +1,300 @@
+package Respositories.Java.Graph;
+
+import java.util.Arrays;
+
+/*
+ * Dijkstra shortest paths over a CsrGraph with non-negative int edge weights.
+ *
+ *  - The queue is an IndexedDaryHeap: primitive arrays, one entry per vertex, real decreaseKey.
+ *  - Scratch state (distances, parents, heap) is allocated once per engine. Instead of clearing
+ *    the distance array between queries, every vertex remembers the query "epoch" that last wrote
+ *    it, so resetting costs O(1) and a query allocates nothing.
+ *  - Point-to-point queries stop as soon as the target is settled.
+ *  - distance() results go through a bounded LRU cache keyed by (source, target): a primitive
+ *    open-addressing table of long keys and values, with the LRU order kept in two int index arrays,
+ *    so a cache hit or insert allocates nothing either. Hit and miss counters are exposed for monitoring.
+ *
+ * Time Complexity: O((n + m) log n) per query in the worst case, far less with early exit.
+ * Space Complexity: O(n) scratch per engine + O(cacheCapacity).
+ *
+ * An engine is not thread-safe; use one per thread (they can share the same CsrGraph).
+ */
+public final class DijkstraEngine {
+
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final CsrGraph graph;
+    private final long[] distance;
+    private final int[] parent;
+    private final int[] epochOf;
+    private final IndexedDaryHeap heap;
+    private int epoch;
+
+    private final LruCache cache;
+    private long cacheHits;
+    private long cacheMisses;
+
+    public DijkstraEngine(CsrGraph graph, int cacheCapacity){
+        if(!graph.hasIntWeights()){
+            throw new IllegalArgumentException("graph needs int edge weights");
+        }
+        for(int weight : graph.intWeights){
+            if(weight < 0){
+                throw new IllegalArgumentException("negative edge weight: " + weight);
+            }
+        }
+        int n = graph.vertexCount();
+        this.graph = graph;
+        this.distance = new long[n];
+        this.parent = new int[n];
+        this.epochOf = new int[n];
+        this.heap = new IndexedDaryHeap(n);
+        this.cache = new LruCache(cacheCapacity);
+    }
+
+    // Shortest distance from source to target, UNREACHABLE if there is no path. Cached.
+    public long distance(int source, int target){
+        checkVertex(source);
+        checkVertex(target);
+        long cacheKey = ((long) source << 32) | target;
+        int entry = cache.find(cacheKey);
+        if(entry >= 0){
+            cacheHits++;
+            return cache.value(entry);
+        }
+        cacheMisses++;
+        long result = run(source, target);
+        cache.put(cacheKey, result);
+        return result;
+    }
+
+    // Vertices of a shortest path source..target (both included), or an empty array if unreachable
+    public int[] path(int source, int target){
+        checkVertex(source);
+        checkVertex(target);
+        if(run(source, target) == UNREACHABLE) return new int[0];
+        int length = 1;
+        for(int v = target; v != source; v = parent[v]) length++;
+        int[] path = new int[length];
+        for(int v = target, i = length - 1; i >= 0; v = parent[v], i--) path[i] = v;
+        return path;
+    }
+
+    // Fills distances[v] with the distance source..v for every vertex (UNREACHABLE if none)
+    public void singleSource(int source, long[] distances){
+        checkVertex(source);
+        int n = graph.vertexCount();
+        if(distances.length != n){
+            throw new IllegalArgumentException("distances has length " + distances.length + ", need " + n);
+        }
+        run(source, -1);
+        for(int v = 0; v < distances.length; v++){
+            distances[v] = epochOf[v] == epoch ? distance[v] : UNREACHABLE;
+        }
+    }
+
+    private void checkVertex(int v){
+        int n = graph.vertexCount();
+        if(v < 0 || v >= n){
+            throw new IndexOutOfBoundsException("vertex " + v + " outside [0, " + n + ")");
+        }
+    }
+
+    // target = -1 runs a full single-source search
+    private long run(int source, int target){
+        if(++epoch == 0) {            // epoch wrapped around: clear once every 2^32 queries
+            Arrays.fill(epochOf, 0);
+            epoch = 1;
+        }
+
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.intWeights;
+
+        heap.clear();
+        distance[source] = 0;
+        parent[source] = source;
+        epochOf[source] = epoch;
+        heap.insertOrDecrease(source, 0);
+
+        while(!heap.isEmpty()){
+            long d = heap.minKey();
+            int u = heap.poll();
+            if(u == target) return d;
+
+            for(int e = offsets[u], end = offsets[u + 1]; e < end; e++){
+                int v = targets[e];
+                long candidate = d + weights[e];
+                if(epochOf[v] != epoch){
+                    epochOf[v] = epoch;
+                    distance[v] = candidate;
+                    parent[v] = u;
+                    heap.insertOrDecrease(v, candidate);
+                } else if(candidate < distance[v]){
+                    distance[v] = candidate;
+                    parent[v] = u;
+                    heap.insertOrDecrease(v, candidate);
+                }
+            }
+        }
+        return target >= 0 && epochOf[target] == epoch ? distance[target] : UNREACHABLE;
+    }
+
+    public long cacheHits(){
+        return cacheHits;
+    }
+
+    public long cacheMisses(){
+        return cacheMisses;
+    }
+
+    public int cacheSize(){
+        return cache.size();
+    }
+
+    /*
+     * LRU map from long keys to long values without boxing. Entries live in slots 0..capacity-1
+     * (keys, values, and a doubly linked recency list through newer/older); table is a linear-probing
+     * index holding slot + 1, 0 = empty, and removals shift later entries back instead of leaving
+     * tombstones.
+     */
+    private static final class LruCache {
+        static final int MAX_CAPACITY = 1 << 28;
+
+        private final int capacity;
+        private final long[] keys;
+        private final long[] values;
+        private final int[] newer;
+        private final int[] older;
+        private final int[] table;
+        private final int mask;
+        private int size;
+        private int newest = -1;
+        private int oldest = -1;
+
+        LruCache(int capacity){
+            // table holds up to 4 * capacity slots, which must stay within an int array
+            if(capacity < 0 || capacity > MAX_CAPACITY){
+                throw new IllegalArgumentException("cacheCapacity must be in [0, " + MAX_CAPACITY + "]: " + capacity);
+            }
+            this.capacity = capacity;
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.newer = new int[capacity];
+            this.older = new int[capacity];
+            this.table = new int[Math.max(2, Integer.highestOneBit(Math.max(1, capacity)) << 2)];
+            this.mask = table.length - 1;
+        }
+
+        private int home(long key){
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        }
+
+        // Slot of key, marked most recently used, or -1
+        int find(long key){
+            for(int i = home(key); table[i] != 0; i = (i + 1) & mask){
+                int slot = table[i] - 1;
+                if(keys[slot] == key){
+                    unlink(slot);
+                    linkNewest(slot);
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        long value(int slot){
+            return values[slot];
+        }
+
+        // Key must not be present
+        void put(long key, long value){
+            if(capacity == 0) return;
+            int slot;
+            if(size == capacity){
+                slot = oldest;
+                unlink(slot);
+                removeFromTable(slot);
+            } else {
+                slot = size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            linkNewest(slot);
+            int i = home(key);
+            while(table[i] != 0) i = (i + 1) & mask;
+            table[i] = slot + 1;
+        }
+
+        private void removeFromTable(int slot){
+            int hole = home(keys[slot]);
+            while(table[hole] != slot + 1) hole = (hole + 1) & mask;
+            for(int i = (hole + 1) & mask; table[i] != 0; i = (i + 1) & mask){
+                int home = home(keys[table[i] - 1]);
+                // Move the entry back unless its home lies cyclically in (hole, i]
+                if(((i - home) & mask) >= ((i - hole) & mask)){
+                    table[hole] = table[i];
+                    hole = i;
+                }
+            }
+            table[hole] = 0;
+        }
+
+        private void unlink(int slot){
+            int before = older[slot], after = newer[slot];
+            if(before >= 0) newer[before] = after; else oldest = after;
+            if(after >= 0) older[after] = before; else newest = before;
+        }
+
+        private void linkNewest(int slot){
+            older[slot] = newest;
+            newer[slot] = -1;
+            if(newest >= 0) newer[newest] = slot; else oldest = slot;
+            newest = slot;
+        }
+
+        int size(){
+            return size;
+        }
+    }
+
+    public static void main(String[] args) {
+
+        // 0->1 (4), 0->2 (1), 2->1 (2), 1->3 (1), 2->3 (5): best 0 -> 2 -> 1 -> 3 = 4
+        CsrGraph small = CsrGraph.builder(4)
+                .addEdge(0, 1, 4)
+                .addEdge(0, 2, 1)
+                .addEdge(2, 1, 2)
+                .addEdge(1, 3, 1)
+                .addEdge(2, 3, 5)
+                .build();
+        DijkstraEngine engine = new DijkstraEngine(small, 16);
+        System.out.println("0 -> 3: " + engine.distance(0, 3) + " via " + Arrays.toString(engine.path(0, 3)));
+        long[] all = new long[4];
+        engine.singleSource(0, all);
+        System.out.println("from 0: " + Arrays.toString(all));
+
+        // Random weighted graph benchmark, args = [vertices] [edges] [queries]
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        java.util.SplittableRandom random = new java.util.SplittableRandom(5);
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for(int i = 0; i < m; i++){
+            builder.addUndirectedEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(100));
+        }
+        DijkstraEngine big = new DijkstraEngine(builder.build(), 1024);
+
+        // Half of the queries repeat a small set of hot pairs, as in production traffic
+        long start = System.nanoTime();
+        long checksum = 0;
+        for(int q = 0; q < queries; q++){
+            int source = q % 2 == 0 ? q % 20 : random.nextInt(n);
+            int target = q % 2 == 0 ? n - 1 - q % 20 : random.nextInt(n);
+            checksum += big.distance(source, target);
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(queries + " point-to-point queries in " + millis + " ms, cache hits " + big.cacheHits()
+                + ", misses " + big.cacheMisses() + " (checksum " + checksum + ")");
+    }
+}
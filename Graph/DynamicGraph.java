@@ -0,0 +1,345 @@
+package Respositories.Java.Graph;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Mutable directed graph for continuous edge updates from several writer threads.
+ *
+ * Every vertex owns a row: an int[] block of neighbors plus a size. Rows are guarded by striped locks
+ * (vertex v uses stripe v & (STRIPES - 1)), so writers touching different vertices do not contend.
+ * A batch groups its edges by stripe and takes every stripe lock once.
+ *
+ * Snapshots without stopping writers:
+ *   - insert only appends behind the current size (growing into a new block when full),
+ *   - delete builds a new block instead of editing the old one.
+ * So the prefix (block, size) seen at some moment is never modified afterwards. snapshot() records
+ * (block, size) for every vertex while holding the write side of a global read/write lock. Writers
+ * hold the read side for each batch, so the snapshot sees whole batches only. The pause is one
+ * pass over the row references. The CSR copy is built after the lock is released.
+ *
+ * The graph is a multigraph: inserting an existing edge adds a second copy, and delete removes one copy.
+ */
+public final class DynamicGraph {
+
+    private static final int STRIPES = 256;
+    private static final int INITIAL_BLOCK = 4;
+    private static final int[] EMPTY = new int[0];
+
+    private final int vertexCount;
+    private final int[][] blocks;
+    private final int[] sizes;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final AtomicLong edgeCount = new AtomicLong();
+
+    public DynamicGraph(int vertexCount){
+        this.vertexCount = vertexCount;
+        this.blocks = new int[vertexCount][];
+        this.sizes = new int[vertexCount];
+        Arrays.fill(blocks, EMPTY);
+        for(int i = 0; i < STRIPES; i++){
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public int vertexCount(){
+        return vertexCount;
+    }
+
+    public long edgeCount(){
+        return edgeCount.get();
+    }
+
+    public void insertEdge(int u, int v){
+        insertEdges(new int[]{u}, new int[]{v}, 1);
+    }
+
+    public boolean deleteEdge(int u, int v){
+        return deleteEdges(new int[]{u}, new int[]{v}, 1) == 1;
+    }
+
+    // Inserts sources[i] -> targets[i] for i < count. Visible to snapshots all at once.
+    public void insertEdges(int[] sources, int[] targets, int count){
+        applyBatch(sources, targets, count, true);
+    }
+
+    // Deletes one copy of sources[i] -> targets[i] for i < count. Returns how many edges existed.
+    public int deleteEdges(int[] sources, int[] targets, int count){
+        return applyBatch(sources, targets, count, false);
+    }
+
+    private int applyBatch(int[] sources, int[] targets, int count, boolean insert){
+        for(int i = 0; i < count; i++){
+            checkVertex(sources[i]);
+            checkVertex(targets[i]);
+        }
+        int[] order = groupByStripe(sources, count);
+
+        int applied = 0;
+        snapshotLock.readLock().lock();
+        try {
+            int i = 0;
+            while(i < count){
+                int stripe = sources[order[i]] & (STRIPES - 1);
+                ReentrantLock lock = stripes[stripe];
+                lock.lock();
+                try {
+                    for(; i < count && (sources[order[i]] & (STRIPES - 1)) == stripe; i++){
+                        int e = order[i];
+                        if(insert){
+                            append(sources[e], targets[e]);
+                            applied++;
+                        } else if(remove(sources[e], targets[e])){
+                            applied++;
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        edgeCount.addAndGet(insert ? applied : -applied);
+        return applied;
+    }
+
+    // Counting sort of batch positions by stripe, so each stripe lock is taken once per batch
+    private static int[] groupByStripe(int[] sources, int count){
+        int[] start = new int[STRIPES + 1];
+        for(int i = 0; i < count; i++){
+            start[(sources[i] & (STRIPES - 1)) + 1]++;
+        }
+        for(int s = 0; s < STRIPES; s++){
+            start[s + 1] += start[s];
+        }
+        int[] order = new int[count];
+        for(int i = 0; i < count; i++){
+            order[start[sources[i] & (STRIPES - 1)]++] = i;
+        }
+        return order;
+    }
+
+    // Caller holds the stripe lock of u
+    private void append(int u, int v){
+        int[] block = blocks[u];
+        int size = sizes[u];
+        if(size == block.length){
+            block = Arrays.copyOf(block, Math.max(INITIAL_BLOCK, size * 2));
+            blocks[u] = block;
+        }
+        block[size] = v;
+        sizes[u] = size + 1;
+    }
+
+    // Caller holds the stripe lock of u. Never edits a block in place, snapshots may still read it.
+    private boolean remove(int u, int v){
+        int[] block = blocks[u];
+        int size = sizes[u];
+        for(int i = 0; i < size; i++){
+            if(block[i] == v){
+                int[] copy = new int[Math.max(INITIAL_BLOCK, size - 1)];
+                System.arraycopy(block, 0, copy, 0, i);
+                System.arraycopy(block, i + 1, copy, i, size - i - 1);
+                blocks[u] = copy;
+                sizes[u] = size - 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int degree(int u){
+        checkVertex(u);
+        ReentrantLock lock = stripes[u & (STRIPES - 1)];
+        lock.lock();
+        try {
+            return sizes[u];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Consistent point-in-time copy of the whole graph, ready for the CSR traversal engines
+    public CsrGraph snapshot(){
+        int[][] rowBlocks = new int[vertexCount][];
+        int[] rowSizes = new int[vertexCount];
+        snapshotLock.writeLock().lock();
+        try {
+            System.arraycopy(blocks, 0, rowBlocks, 0, vertexCount);
+            System.arraycopy(sizes, 0, rowSizes, 0, vertexCount);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+
+        CsrGraph.Builder builder = CsrGraph.builder(vertexCount);
+        for(int u = 0; u < vertexCount; u++){
+            int[] block = rowBlocks[u];
+            for(int i = 0, size = rowSizes[u]; i < size; i++){
+                builder.addEdge(u, block[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    private void checkVertex(int v){
+        if(v < 0 || v >= vertexCount){
+            throw new IndexOutOfBoundsException("vertex " + v + " outside [0, " + vertexCount + ")");
+        }
+    }
+
+    /*
+     * Concurrent writers, each with 64 source vertices of its own plus one block of sources they all
+     * share. A writer inserts batches from its own sources and deletes every other batch again, and
+     * inserts every shared edge once, then deletes a copy of half of them. Snapshots taken meanwhile
+     * must hold whole batches only; afterwards edgeCount(), degree() and the snapshot must match the
+     * expected multigraph. Throws IllegalStateException otherwise.
+     */
+    static void verifyConcurrent(int writers, int rounds) throws InterruptedException {
+        final int own = 64, batch = 32;
+        int sharedFrom = writers * own;
+        int n = sharedFrom + own;
+        int[] sharedUs = new int[4 * own], sharedVs = new int[4 * own];
+        for(int i = 0; i < sharedUs.length; i++){
+            sharedUs[i] = sharedFrom + i % own;
+            sharedVs[i] = (i * 31) % n;
+        }
+
+        DynamicGraph graph = new DynamicGraph(n);
+        int[][] keptUs = new int[writers][], keptVs = new int[writers][];
+        String[] failure = new String[writers];
+        Thread[] threads = new Thread[writers];
+        for(int t = 0; t < writers; t++){
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                java.util.SplittableRandom random = new java.util.SplittableRandom(id);
+                int[] us = new int[rounds * batch], vs = new int[rounds * batch];
+                int kept = 0;
+                for(int round = 0; round < rounds; round++){
+                    for(int i = kept; i < kept + batch; i++){
+                        us[i] = id * own + random.nextInt(own);
+                        vs[i] = random.nextInt(n);
+                    }
+                    graph.insertEdges(Arrays.copyOfRange(us, kept, kept + batch), Arrays.copyOfRange(vs, kept, kept + batch), batch);
+                    if((round & 1) == 0){
+                        kept += batch;
+                    } else if(graph.deleteEdges(Arrays.copyOfRange(us, kept, kept + batch),
+                            Arrays.copyOfRange(vs, kept, kept + batch), batch) != batch){
+                        failure[id] = "writer " + id + " could not delete its own batch";
+                    }
+                }
+                keptUs[id] = Arrays.copyOf(us, kept);
+                keptVs[id] = Arrays.copyOf(vs, kept);
+
+                // Shared edges: this writer's copy always exists before it deletes one
+                for(int i = 0; i < sharedUs.length; i++) graph.insertEdge(sharedUs[i], sharedVs[i]);
+                for(int i = id & 1; i < sharedUs.length; i += 2){
+                    if(!graph.deleteEdge(sharedUs[i], sharedVs[i])){
+                        failure[id] = "writer " + id + " found no copy of shared edge " + i;
+                    }
+                }
+            });
+        }
+        for(Thread thread : threads) thread.start();
+        boolean running = true;
+        while(running){
+            running = false;
+            for(Thread thread : threads) running |= thread.isAlive();
+            CsrGraph snapshot = graph.snapshot();
+            for(int t = 0; t < writers; t++){
+                int edges = snapshot.edgeStart(t * own + own) - snapshot.edgeStart(t * own);
+                if(edges % batch != 0){
+                    throw new IllegalStateException("snapshot holds " + edges + " edges of writer " + t + ", not whole batches");
+                }
+            }
+        }
+        for(Thread thread : threads) thread.join();
+        for(String message : failure){
+            if(message != null) throw new IllegalStateException(message);
+        }
+
+        // Expected multiplicity of every edge u -> v, as a count per (u * n + v)
+        java.util.Map<Long, Integer> expected = new java.util.HashMap<>();
+        long total = 0;
+        for(int t = 0; t < writers; t++){
+            for(int i = 0; i < keptUs[t].length; i++, total++) expected.merge((long) keptUs[t][i] * n + keptVs[t][i], 1, Integer::sum);
+        }
+        for(int i = 0; i < sharedUs.length; i++){
+            int copies = writers - (i % 2 == 0 ? (writers + 1) / 2 : writers / 2);
+            total += copies;
+            if(copies > 0) expected.merge((long) sharedUs[i] * n + sharedVs[i], copies, Integer::sum);
+        }
+
+        CsrGraph result = graph.snapshot();
+        if(graph.edgeCount() != total || result.edgeCount() != total){
+            throw new IllegalStateException("edgeCount " + graph.edgeCount() + ", snapshot " + result.edgeCount() + ", expected " + total);
+        }
+        for(int u = 0; u < n; u++){
+            if(graph.degree(u) != result.edgeEnd(u) - result.edgeStart(u)){
+                throw new IllegalStateException("degree(" + u + ") differs from the snapshot");
+            }
+            for(int e = result.edgeStart(u); e < result.edgeEnd(u); e++){
+                long key = (long) u * n + result.target(e);
+                Integer left = expected.merge(key, -1, Integer::sum);
+                if(left < 0) throw new IllegalStateException("unexpected edge " + u + " -> " + result.target(e));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        DynamicGraph small = new DynamicGraph(4);
+        small.insertEdges(new int[]{1, 2, 2, 3, 1, 3}, new int[]{2, 1, 3, 2, 3, 1}, 6);
+        small.deleteEdge(1, 3);
+        CsrGraph view = small.snapshot();
+        for(int v = 1; v < view.vertexCount(); v++){
+            System.out.print(v + " -> ");
+            view.forEachNeighbor(v, (u, w, e) -> System.out.print(w + " "));
+            System.out.println();
+        }
+
+        // Ingest benchmark, args = [vertices] [writer threads] [edges per writer] [batch size]
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int writers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        int checkWriters = Math.max(4, writers);
+        verifyConcurrent(checkWriters, 2_000);
+        System.out.println(checkWriters + " writers: snapshots hold whole batches, final graph matches the expected edges");
+        int perWriter = args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000;
+        int batch = args.length > 3 ? Integer.parseInt(args[3]) : 4096;
+
+        DynamicGraph graph = new DynamicGraph(n);
+        Thread[] threads = new Thread[writers];
+        for(int t = 0; t < writers; t++){
+            final long seed = t;
+            threads[t] = new Thread(() -> {
+                java.util.SplittableRandom random = new java.util.SplittableRandom(seed);
+                int[] us = new int[batch];
+                int[] vs = new int[batch];
+                for(int done = 0; done < perWriter; done += batch){
+                    int count = Math.min(batch, perWriter - done);
+                    for(int i = 0; i < count; i++){
+                        us[i] = random.nextInt(n);
+                        vs[i] = random.nextInt(n);
+                    }
+                    graph.insertEdges(us, vs, count);
+                    // Delete a small share again to exercise the copy-on-delete path
+                    graph.deleteEdges(us, vs, count / 16);
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for(Thread thread : threads) thread.start();
+        CsrGraph snapshot = graph.snapshot(); // taken while writers are running
+        for(Thread thread : threads) thread.join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long updates = (long) writers * (perWriter + perWriter / 16);
+        System.out.printf("%d writers, batch %d: %.0f edge updates/s, %d edges, mid-run snapshot had %d edges%n",
+                writers, batch, updates / seconds, graph.edgeCount(), snapshot.edgeCount());
+    }
+}
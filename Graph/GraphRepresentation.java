@@ -30,5 +30,15 @@ public class GraphRepresentation {
             }
             System.out.println();
         }
+
+        // Same graph as flat CSR arrays (no boxed Integers), see CsrGraph
+        CsrGraph csr = CsrGraph.fromAdjacencyList(adjList);
+        for(int i=1; i < n; i++){
+            for(int e = csr.edgeStart(i); e < csr.edgeEnd(i); e++){
+                System.out.print(csr.target(e)+ " ");
+            }
+            System.out.println();
+        }
+        System.out.println(csr.footprintReport());
     }
 }
@@ -0,0 +1,130 @@
+package Respositories.Java.Graph;
+
+import java.util.Arrays;
+
+/*
+ * Indexed min-heap of vertices keyed by long priorities, with D children per node.
+ *
+ * Unlike PriorityQueue<int[]> nothing is boxed and a vertex is in the heap at most once:
+ * decreaseKey() moves the existing entry instead of adding a duplicate.
+ *
+ *   heap[i]     : vertex stored at heap slot i
+ *   key[v]      : priority of vertex v (valid while v is in the heap)
+ *   position[v] : slot of v in heap[], or -1 when v is not in the heap
+ *
+ * A 4-ary heap is shallower than a binary heap and its children sit next to each other in memory,
+ * which makes it faster for Dijkstra where decreaseKey (sift up) is far more common than poll.
+ *
+ * Time Complexity: insert / decreaseKey O(log_D n), poll O(D log_D n)
+ * Space Complexity: O(n) -> allocated once, reused after clear()
+ */
+public final class IndexedDaryHeap {
+
+    private static final int D = 4;
+
+    private final int[] heap;
+    private final int[] position;
+    private final long[] key;
+    private int size;
+
+    public IndexedDaryHeap(int capacity){
+        heap = new int[capacity];
+        position = new int[capacity];
+        key = new long[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public boolean contains(int v){
+        return position[v] >= 0;
+    }
+
+    public long key(int v){
+        return key[v];
+    }
+
+    // Inserts v, or lowers its key if it is already present with a larger one
+    public void insertOrDecrease(int v, long newKey){
+        int slot = position[v];
+        if(slot < 0){
+            slot = size++;
+            heap[slot] = v;
+            position[v] = slot;
+        } else if(newKey >= key[v]){
+            return;
+        }
+        key[v] = newKey;
+        siftUp(slot);
+    }
+
+    public long minKey(){
+        return key[heap[0]];
+    }
+
+    public int poll(){
+        int min = heap[0];
+        position[min] = -1;
+        int last = heap[--size];
+        if(size > 0){
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    // Removes every entry; O(size), so an early-exit query does not pay for the whole graph
+    public void clear(){
+        for(int i = 0; i < size; i++){
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot){
+        int v = heap[slot];
+        long k = key[v];
+        while(slot > 0){
+            int parentSlot = (slot - 1) / D;
+            int parent = heap[parentSlot];
+            if(key[parent] <= k) break;
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = v;
+        position[v] = slot;
+    }
+
+    private void siftDown(int slot){
+        int v = heap[slot];
+        long k = key[v];
+        while(true){
+            int first = slot * D + 1;
+            if(first >= size) break;
+            int best = first;
+            long bestKey = key[heap[first]];
+            for(int c = first + 1, end = Math.min(first + D, size); c < end; c++){
+                long childKey = key[heap[c]];
+                if(childKey < bestKey){
+                    best = c;
+                    bestKey = childKey;
+                }
+            }
+            if(bestKey >= k) break;
+            int child = heap[best];
+            heap[slot] = child;
+            position[child] = slot;
+            slot = best;
+        }
+        heap[slot] = v;
+        position[v] = slot;
+    }
+}
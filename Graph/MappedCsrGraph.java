@@ -0,0 +1,354 @@
+package Respositories.Java.Graph;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+ * Binary on-disk CSR graph, read through memory mapping.
+ *
+ * File layout (little endian):
+ *
+ *   header   : int magic "CSRG", int version, long vertexCount, long edgeCount, long reserved  (32 bytes)
+ *   offsets  : long[vertexCount + 1]   edge range of every vertex
+ *   targets  : int[edgeCount]          neighbor of every edge
+ *
+ * Opening a file only maps it; nothing is parsed or copied onto the heap. Neighbor queries read the
+ * mapped pages directly, so a multi-GB graph opens in milliseconds and the OS page cache does the rest.
+ *
+ * A MappedByteBuffer is limited to 2 GB, so the file is mapped in 1 GB chunks. Every value sits on
+ * its natural alignment and the chunk size is a multiple of 8, so a value never straddles two chunks.
+ *
+ * convertEdgeList() turns a text edge list ("u v" per line, sorted by u) into this format in a single
+ * streaming pass: targets go straight to a temporary file, only the offsets are kept in memory.
+ */
+public final class MappedCsrGraph implements AutoCloseable {
+
+    static final int MAGIC = 0x43535247; // "CSRG"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    // Vertex ids must be below this, so the offsets array (one entry per vertex, plus one) fits
+    static final int MAX_VERTICES = Integer.MAX_VALUE - 8;
+
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final long vertexCount;
+    private final long edgeCount;
+    private final long targetsBase;
+
+    private MappedCsrGraph(FileChannel channel, MappedByteBuffer[] chunks, long vertexCount, long edgeCount){
+        this.channel = channel;
+        this.chunks = chunks;
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.targetsBase = HEADER_BYTES + 8 * (vertexCount + 1);
+    }
+
+    public static MappedCsrGraph open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            int count = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[count];
+            for(int i = 0; i < count; i++){
+                long position = (long) i << CHUNK_SHIFT;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position));
+                chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            if(size < HEADER_BYTES || chunks[0].getInt(0) != MAGIC){
+                throw new IOException(file + " is not a CSR graph file");
+            }
+            if(chunks[0].getInt(4) != VERSION){
+                throw new IOException(file + ": unsupported version " + chunks[0].getInt(4));
+            }
+            long n = chunks[0].getLong(8);
+            long m = chunks[0].getLong(16);
+            if(size != HEADER_BYTES + 8 * (n + 1) + 4 * m){
+                throw new IOException(file + ": size " + size + " does not match header (n=" + n + ", m=" + m + ")");
+            }
+            return new MappedCsrGraph(channel, chunks, n, m);
+        } catch(IOException | RuntimeException e){
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long vertexCount(){
+        return vertexCount;
+    }
+
+    public long edgeCount(){
+        return edgeCount;
+    }
+
+    public long edgeStart(long v){
+        return readLong(HEADER_BYTES + 8 * v);
+    }
+
+    public long edgeEnd(long v){
+        return readLong(HEADER_BYTES + 8 * (v + 1));
+    }
+
+    public long degree(long v){
+        return edgeEnd(v) - edgeStart(v);
+    }
+
+    public int target(long edge){
+        long position = targetsBase + 4 * edge;
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getInt((int) (position & CHUNK_MASK));
+    }
+
+    // Like CsrGraph.NeighborVisitor, but the edge index is a long: a mapped file may hold more than 2^31 edges
+    public interface NeighborVisitor {
+        void visit(int source, int target, long edge);
+    }
+
+    public void forEachNeighbor(int v, NeighborVisitor visitor){
+        for(long e = edgeStart(v), end = edgeEnd(v); e < end; e++){
+            visitor.visit(v, target(e), e);
+        }
+    }
+
+    private long readLong(long position){
+        return chunks[(int) (position >>> CHUNK_SHIFT)].getLong((int) (position & CHUNK_MASK));
+    }
+
+    // The mappings stay valid until they are garbage collected; closing releases the file handle
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Writes an in-memory CsrGraph in the binary format
+    public static void write(CsrGraph graph, Path file) throws IOException {
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))){
+            writeHeader(out, graph.vertexCount(), graph.edgeCount());
+            for(int v = 0; v <= graph.vertexCount(); v++){
+                out.writeLong(Long.reverseBytes(graph.offsets[v]));
+            }
+            for(int e = 0; e < graph.edgeCount(); e++){
+                out.writeInt(Integer.reverseBytes(graph.targets[e]));
+            }
+        }
+    }
+
+    /*
+     * Converts a text edge list into the binary format in one pass over the input.
+     *
+     * Each non-empty line is "source target"; lines starting with '#' or '%' are comments.
+     * Lines must be sorted by source vertex (as most edge-list dumps are), otherwise an IOException
+     * is thrown. The vertex count is 1 + the largest id seen in either column.
+     *
+     * Returns the number of edges written.
+     */
+    public static long convertEdgeList(Path textFile, Path binaryFile) throws IOException {
+        Path targetsFile = Files.createTempFile(binaryFile.toAbsolutePath().getParent(), "targets", ".tmp");
+        try {
+            long[] offsets = new long[1024];
+            int maxVertex = -1;
+            int currentSource = 0;
+            long edges = 0;
+
+            try(BufferedReader reader = Files.newBufferedReader(textFile);
+                 DataOutputStream targets = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(targetsFile), 1 << 16))){
+                String line;
+                long lineNumber = 0;
+                while((line = reader.readLine()) != null){
+                    lineNumber++;
+                    int i = skipSpaces(line, 0);
+                    if(i == line.length() || line.charAt(i) == '#' || line.charAt(i) == '%') continue;
+
+                    int j = skipDigits(line, i);
+                    int k = skipSpaces(line, j);
+                    int l = skipDigits(line, k);
+                    if(j == i || l == k){
+                        throw new IOException(textFile + ":" + lineNumber + ": expected \"source target\" but was \"" + line + "\"");
+                    }
+                    int u = parseVertex(line, i, j);
+                    int v = parseVertex(line, k, l);
+                    if(u < 0 || v < 0){
+                        throw new IOException(textFile + ":" + lineNumber + ": vertex ids must be below " + MAX_VERTICES);
+                    }
+                    if(u < currentSource){
+                        throw new IOException(textFile + ":" + lineNumber + ": edge list is not sorted by source vertex");
+                    }
+
+                    // Close the offsets of every vertex between the previous source and u
+                    if(u + 2 > offsets.length){
+                        offsets = Arrays.copyOf(offsets, (int) Math.min(MAX_VERTICES + 1L, Math.max(offsets.length * 2L, u + 2)));
+                    }
+                    while(currentSource < u){
+                        offsets[++currentSource] = edges;
+                    }
+                    targets.writeInt(Integer.reverseBytes(v));
+                    edges++;
+                    maxVertex = Math.max(maxVertex, Math.max(u, v));
+                }
+            }
+
+            int n = maxVertex + 1;
+            if(n + 1 > offsets.length){
+                offsets = Arrays.copyOf(offsets, n + 1);
+            }
+            while(currentSource < n){
+                offsets[++currentSource] = edges;
+            }
+
+            try(FileChannel out = FileChannel.open(binaryFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 FileChannel in = FileChannel.open(targetsFile, StandardOpenOption.READ)){
+                ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(MAGIC).putInt(VERSION).putLong(n).putLong(edges).putLong(0);
+                for(int v = 0; v <= n; v++){
+                    if(buffer.remaining() < 8){
+                        drain(buffer, out);
+                    }
+                    buffer.putLong(offsets[v]);
+                }
+                drain(buffer, out);
+
+                long position = 0, size = in.size();
+                while(position < size){
+                    position += in.transferTo(position, size - position, out);
+                }
+            }
+            return edges;
+        } finally {
+            Files.deleteIfExists(targetsFile);
+        }
+    }
+
+    private static void writeHeader(OutputStream stream, long vertexCount, long edgeCount) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(vertexCount).putLong(edgeCount).putLong(0);
+        stream.write(header.array());
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while(buffer.hasRemaining()){
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static int skipSpaces(String s, int i){
+        while(i < s.length() && (s.charAt(i) == ' ' || s.charAt(i) == '\t' || s.charAt(i) == ',')) i++;
+        return i;
+    }
+
+    private static int skipDigits(String s, int i){
+        while(i < s.length() && s.charAt(i) >= '0' && s.charAt(i) <= '9') i++;
+        return i;
+    }
+
+    // The digits s[from, to) as a vertex id, or -1 if the id is MAX_VERTICES or more
+    private static int parseVertex(String s, int from, int to){
+        long id = 0;
+        for(int i = from; i < to; i++){
+            id = id * 10 + (s.charAt(i) - '0');
+            if(id >= MAX_VERTICES) return -1;
+        }
+        return (int) id;
+    }
+
+    // The baseline this format replaces: parse the whole text edge list onto the heap
+    private static CsrGraph readEdgeList(Path textFile, int vertexCount) throws IOException {
+        CsrGraph.Builder builder = CsrGraph.builder(vertexCount);
+        try(BufferedReader reader = Files.newBufferedReader(textFile)){
+            String line;
+            while((line = reader.readLine()) != null){
+                int i = skipSpaces(line, 0);
+                int j = skipDigits(line, i);
+                int k = skipSpaces(line, j);
+                int l = skipDigits(line, k);
+                if(j == i || l == k) continue;
+                builder.addEdge(Integer.parseInt(line, i, j, 10), Integer.parseInt(line, k, l, 10));
+            }
+        }
+        return builder.build();
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        Path dir = Files.createTempDirectory("csr");
+        Path text = dir.resolve("edges.txt");
+        Path binary = dir.resolve("edges.csr");
+
+        // Same triangle as GraphRepresentation, as a sorted text edge list
+        Files.writeString(text, "# source target\n1 2\n1 3\n2 1\n2 3\n3 1\n3 2\n");
+
+        long edges = convertEdgeList(text, binary);
+        System.out.println("Converted " + edges + " edges into " + Files.size(binary) + " bytes");
+
+        try(MappedCsrGraph graph = open(binary)){
+            for(int v = 1; v < graph.vertexCount(); v++){
+                System.out.print(v + " -> ");
+                graph.forEachNeighbor(v, (u, w, e) -> System.out.print(w + " "));
+                System.out.println();
+            }
+        }
+
+        // Timing: write a larger random graph as text and binary, then compare re-reading the text
+        // with mapping the binary file
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int m = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        java.util.SplittableRandom random = new java.util.SplittableRandom(7);
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        Path bigText = dir.resolve("big.txt");
+        try(java.io.BufferedWriter writer = Files.newBufferedWriter(bigText)){
+            for(int i = 0; i < m; i++){
+                int u = random.nextInt(n), v = random.nextInt(n);
+                builder.addEdge(u, v);
+                writer.write(u + " " + v + "\n");
+            }
+        }
+        Path big = dir.resolve("big.csr");
+        write(builder.build(), big);
+
+        long start = System.nanoTime();
+        long textChecksum = 0;
+        CsrGraph parsed = readEdgeList(bigText, n);
+        long parseMillis = (System.nanoTime() - start) / 1_000_000;
+        for(int e = 0; e < parsed.edgeCount(); e++){
+            textChecksum += parsed.target(e);
+        }
+        System.out.println("Parsed " + Files.size(bigText) + " bytes of text into a CsrGraph in " + parseMillis
+                + " ms (checksum " + textChecksum + ")");
+
+        start = System.nanoTime();
+        try(MappedCsrGraph graph = open(big)){
+            long openMicros = (System.nanoTime() - start) / 1_000;
+            long checksum = 0;
+            start = System.nanoTime();
+            for(long v = 0; v < graph.vertexCount(); v++){
+                for(long e = graph.edgeStart(v), end = graph.edgeEnd(v); e < end; e++){
+                    checksum += graph.target(e);
+                }
+            }
+            long scanMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Mapped " + Files.size(big) + " bytes in " + openMicros + " us, full edge scan "
+                    + scanMillis + " ms (checksum " + checksum + ")");
+        }
+
+        Files.delete(text);
+        Files.delete(binary);
+        Files.delete(big);
+        Files.delete(bigText);
+        Files.delete(dir);
+    }
+}
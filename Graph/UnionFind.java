@@ -0,0 +1,104 @@
+package Respositories.Java.Graph;
+
+import java.util.Arrays;
+
+/*
+ * Disjoint Set Union (union-find) over vertices 0..n-1, single threaded.
+ *
+ *   parent[v] : parent of v in its tree, roots point to themselves
+ *   rank[v]   : upper bound on the height of v's tree (only meaningful for roots)
+ *
+ * find() compresses the path so every visited vertex points straight at the root, and union() hangs the
+ * lower-ranked root under the higher-ranked one.
+ *
+ * Time Complexity: O(alpha(n)) amortized per operation (alpha = inverse Ackermann, < 5 in practice)
+ * Space Complexity: O(n) -> one int and one byte per vertex
+ *
+ * See ConcurrentUnionFind for the variant that many threads can update at once.
+ */
+public final class UnionFind {
+
+    private final int[] parent;
+    private final byte[] rank;
+    private int components;
+
+    public UnionFind(int n){
+        parent = new int[n];
+        rank = new byte[n];
+        for(int i = 0; i < n; i++){
+            parent[i] = i;
+        }
+        components = n;
+    }
+
+    public int size(){
+        return parent.length;
+    }
+
+    public int componentCount(){
+        return components;
+    }
+
+    public int find(int x){
+        int root = x;
+        while(parent[root] != root){
+            root = parent[root];
+        }
+        // Second pass: point every vertex on the path directly at the root
+        while(parent[x] != root){
+            int next = parent[x];
+            parent[x] = root;
+            x = next;
+        }
+        return root;
+    }
+
+    // Returns false when a and b were already connected
+    public boolean union(int a, int b){
+        int rootA = find(a);
+        int rootB = find(b);
+        if(rootA == rootB) return false;
+
+        if(rank[rootA] < rank[rootB]){
+            parent[rootA] = rootB;
+        } else if(rank[rootA] > rank[rootB]){
+            parent[rootB] = rootA;
+        } else {
+            parent[rootB] = rootA;
+            rank[rootA]++;
+        }
+        components--;
+        return true;
+    }
+
+    public boolean connected(int a, int b){
+        return find(a) == find(b);
+    }
+
+    // Component id per vertex, numbered 0..componentCount()-1 in order of each component's smallest vertex
+    public int[] componentIds(){
+        int n = parent.length;
+        int[] ids = new int[n];
+        int[] idOfRoot = new int[n];
+        Arrays.fill(idOfRoot, -1);
+        int next = 0;
+        for(int v = 0; v < n; v++){
+            int root = find(v);
+            if(idOfRoot[root] < 0) idOfRoot[root] = next++;
+            ids[v] = idOfRoot[root];
+        }
+        return ids;
+    }
+
+    public static void main(String[] args) {
+
+        UnionFind uf = new UnionFind(7);
+        uf.union(1, 2);
+        uf.union(2, 3);
+        uf.union(4, 5);
+
+        System.out.println("1 and 3 connected? " + uf.connected(1, 3));
+        System.out.println("3 and 4 connected? " + uf.connected(3, 4));
+        System.out.println("Components: " + uf.componentCount() + " " + Arrays.toString(uf.componentIds()));
+    }
+}
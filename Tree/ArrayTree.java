@@ -0,0 +1,336 @@
+package Respositories.Java.Tree;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/*
+ * Binary tree stored as a struct of arrays instead of linked TreeNode objects.
+ *
+ *   val[i], left[i], right[i]  -> node i, children are indices (NIL = -1), the root is node 0
+ *
+ * Nodes are numbered in pre-order, so a node's left child is usually the next slot and every
+ * subtree occupies one contiguous range [i, i + subtreeSize(i)). A million-node tree is three int[]
+ * (12 bytes per node) instead of a million objects of 24-32 bytes, each a cache miss away.
+ *
+ * Both TreeNode shapes in this package (BinaryTreeTraversal.TreeNode and MaxDepthBT.TreeNode)
+ * convert to and from this form.
+ *
+ * For complete trees there is also the Eytzinger (BFS order) layout: just the values, with the
+ * children of slot k at 2k+1 and 2k+2, so no child arrays are needed at all.
+ */
+public final class ArrayTree {
+
+    public static final int NIL = -1;
+
+    final int size;
+    final int[] val;
+    final int[] left;
+    final int[] right;
+    private int depth = -1;   // maxDepth(), computed on first use (the tree never changes)
+
+    private ArrayTree(int size, int[] val, int[] left, int[] right){
+        this.size = size;
+        this.val = val;
+        this.left = left;
+        this.right = right;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public int value(int node){
+        return val[node];
+    }
+
+    public int left(int node){
+        return left[node];
+    }
+
+    public int right(int node){
+        return right[node];
+    }
+
+    public static ArrayTree from(BinaryTreeTraversal.TreeNode root){
+        return from(root, n -> n.val, n -> n.left, n -> n.right);
+    }
+
+    public static ArrayTree from(MaxDepthBT.TreeNode root){
+        return from(root, n -> n.val, n -> n.left, n -> n.right);
+    }
+
+    // Numbers the nodes in pre-order with an explicit stack, so any depth works
+    private static <N> ArrayTree from(N root, ToIntFunction<N> value, UnaryOperator<N> leftOf, UnaryOperator<N> rightOf){
+        int capacity = 16;
+        int[] val = new int[capacity], left = new int[capacity], right = new int[capacity];
+        int size = 0;
+        if(root == null) return new ArrayTree(0, val, left, right);
+
+        // Each stack entry is a node plus the slot whose child pointer must be set to its index
+        ArrayDeque<N> nodes = new ArrayDeque<>();
+        int[] parentSlot = new int[capacity];
+        boolean[] isLeft = new boolean[capacity];
+        nodes.push(root);
+        parentSlot[0] = NIL;
+        int top = 0;
+
+        while(!nodes.isEmpty()){
+            N node = nodes.pop();
+            int parent = parentSlot[top];
+            boolean leftChild = isLeft[top];
+            top--;
+
+            if(size == val.length){
+                capacity = size * 2;
+                val = Arrays.copyOf(val, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+            }
+            int id = size++;
+            val[id] = value.applyAsInt(node);
+            left[id] = NIL;
+            right[id] = NIL;
+            if(parent != NIL){
+                if(leftChild) left[parent] = id; else right[parent] = id;
+            }
+
+            // Push right first so the left child gets the next index
+            N r = rightOf.apply(node), l = leftOf.apply(node);
+            if(top + 3 > parentSlot.length){
+                parentSlot = Arrays.copyOf(parentSlot, parentSlot.length * 2);
+                isLeft = Arrays.copyOf(isLeft, isLeft.length * 2);
+            }
+            if(r != null){
+                nodes.push(r);
+                parentSlot[++top] = id;
+                isLeft[top] = false;
+            }
+            if(l != null){
+                nodes.push(l);
+                parentSlot[++top] = id;
+                isLeft[top] = true;
+            }
+        }
+        return new ArrayTree(size, Arrays.copyOf(val, size), Arrays.copyOf(left, size),
+                Arrays.copyOf(right, size));
+    }
+
+    public BinaryTreeTraversal.TreeNode toTreeNode(){
+        if(size == 0) return null;
+        BinaryTreeTraversal.TreeNode[] nodes = new BinaryTreeTraversal.TreeNode[size];
+        for(int i = 0; i < size; i++) nodes[i] = new BinaryTreeTraversal.TreeNode(val[i]);
+        for(int i = 0; i < size; i++){
+            if(left[i] != NIL) nodes[i].left = nodes[left[i]];
+            if(right[i] != NIL) nodes[i].right = nodes[right[i]];
+        }
+        return nodes[0];
+    }
+
+    public MaxDepthBT.TreeNode toMaxDepthNode(){
+        if(size == 0) return null;
+        MaxDepthBT.TreeNode[] nodes = new MaxDepthBT.TreeNode[size];
+        for(int i = 0; i < size; i++) nodes[i] = new MaxDepthBT.TreeNode(val[i]);
+        for(int i = 0; i < size; i++){
+            if(left[i] != NIL) nodes[i].left = nodes[left[i]];
+            if(right[i] != NIL) nodes[i].right = nodes[right[i]];
+        }
+        return nodes[0];
+    }
+
+    // Pre-order is the storage order, so it is a plain array scan
+    public void preOrder(IntConsumer action){
+        for(int i = 0; i < size; i++) action.accept(val[i]);
+    }
+
+    public void inOrder(IntConsumer action){
+        if(size == 0) return;
+        int[] stack = new int[maxDepth()];
+        int top = -1;
+        int node = 0;
+        while(node != NIL || top >= 0){
+            while(node != NIL){
+                stack[++top] = node;
+                node = left[node];
+            }
+            node = stack[top--];
+            action.accept(val[node]);
+            node = right[node];
+        }
+    }
+
+    // Children always have larger indices than their parent, so one backward pass sees children first.
+    // Cached after the first call; a race only repeats the same computation, like String.hashCode.
+    public int maxDepth(){
+        int cached = depth;
+        if(cached >= 0) return cached;
+        cached = 0;
+        if(size > 0){
+            int[] depths = new int[size];
+            for(int i = size - 1; i >= 0; i--){
+                int l = left[i] == NIL ? 0 : depths[left[i]];
+                int r = right[i] == NIL ? 0 : depths[right[i]];
+                depths[i] = 1 + Math.max(l, r);
+            }
+            cached = depths[0];
+        }
+        depth = cached;
+        return cached;
+    }
+
+    // Number of nodes in the subtree of every node; subtree i is the index range [i, i + sizes[i])
+    public int[] subtreeSizes(){
+        int[] sizes = new int[size];
+        for(int i = size - 1; i >= 0; i--){
+            sizes[i] = 1 + (left[i] == NIL ? 0 : sizes[left[i]]) + (right[i] == NIL ? 0 : sizes[right[i]]);
+        }
+        return sizes;
+    }
+
+    // In-order values as a SIZED stream; call parallel() on it to split across cores
+    public IntStream intStream(){
+        return TreeSpliterator.inOrderStream(this, false);
+    }
+
+    // Binary search tree lookup: index of the node holding key, or NIL
+    public int search(int key){
+        int node = size == 0 ? NIL : 0;
+        while(node != NIL && val[node] != key){
+            node = key < val[node] ? left[node] : right[node];
+        }
+        return node;
+    }
+
+    // Values in BFS order, children of slot k at 2k+1 / 2k+2. Only for complete trees.
+    public int[] toEytzinger(){
+        int[] layout = new int[size];
+        if(size == 0) return layout;
+        int[] queue = new int[size];
+        int head = 0, tail = 0;
+        queue[tail++] = 0;
+        boolean gap = false;
+        while(head < tail){
+            int node = queue[head];
+            layout[head++] = val[node];
+            for(int side = 0; side < 2; side++){
+                int child = side == 0 ? left[node] : right[node];
+                if(child == NIL){
+                    gap = true;
+                } else if(gap){
+                    throw new IllegalStateException("tree is not complete, Eytzinger layout needs a complete tree");
+                } else {
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return layout;
+    }
+
+    // BST search over an Eytzinger layout: slot of key, or NIL
+    public static int eytzingerSearch(int[] layout, int key){
+        int k = 0;
+        while(k < layout.length){
+            int v = layout[k];
+            if(v == key) return k;
+            k = 2 * k + (key < v ? 1 : 2);
+        }
+        return NIL;
+    }
+
+    // Depth of an Eytzinger layout with n slots
+    public static int eytzingerDepth(int n){
+        return 32 - Integer.numberOfLeadingZeros(n);
+    }
+
+    public long memoryFootprintBytes(){
+        return 3 * (16 + 4L * size);
+    }
+
+    public static void main(String[] args) {
+
+        // Sample tree from MaxDepthBT
+        MaxDepthBT.TreeNode sample = new MaxDepthBT.TreeNode(1,
+                new MaxDepthBT.TreeNode(2, new MaxDepthBT.TreeNode(4), null),
+                new MaxDepthBT.TreeNode(3));
+        ArrayTree small = from(sample);
+        StringBuilder order = new StringBuilder();
+        small.inOrder(v -> order.append(v).append(' '));
+        System.out.println("In order: " + order + "| max depth " + small.maxDepth());
+
+        // Benchmark on a random BST, args = [nodes]
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        java.util.SplittableRandom random = new java.util.SplittableRandom(9);
+        int[] keys = new int[n];
+        for(int i = 0; i < n; i++) keys[i] = i * 2;
+        for(int i = n - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            int t = keys[i]; keys[i] = keys[j]; keys[j] = t;
+        }
+        BinaryTreeTraversal.TreeNode root = new BinaryTreeTraversal.TreeNode(keys[0]);
+        for(int i = 1; i < n; i++){
+            BinaryTreeTraversal.TreeNode node = root;
+            while(true){
+                if(keys[i] < node.val){
+                    if(node.left == null) { node.left = new BinaryTreeTraversal.TreeNode(keys[i]); break; }
+                    node = node.left;
+                } else {
+                    if(node.right == null) { node.right = new BinaryTreeTraversal.TreeNode(keys[i]); break; }
+                    node = node.right;
+                }
+            }
+        }
+        ArrayTree tree = from(root);
+        int[] probes = new int[1_000_000];
+        for(int i = 0; i < probes.length; i++) probes[i] = random.nextInt(2 * n);
+
+        for(int round = 0; round < 3; round++){
+            long start = System.nanoTime();
+            long[] sum = new long[1];
+            IterativeTraversal.traverse(root, null, null, null);
+            long linkedTraversal = System.nanoTime() - start;
+            start = System.nanoTime();
+            tree.inOrder(v -> sum[0] += v);
+            long arrayTraversal = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int linkedDepth = IterativeTraversal.height(root);
+            long linkedDepthTime = System.nanoTime() - start;
+            ArrayTree uncached = new ArrayTree(tree.size, tree.val, tree.left, tree.right);
+            start = System.nanoTime();
+            int arrayDepth = uncached.maxDepth();
+            long arrayDepthTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int linkedFound = 0;
+            for(int probe : probes){
+                BinaryTreeTraversal.TreeNode node = root;
+                while(node != null && node.val != probe) node = probe < node.val ? node.left : node.right;
+                if(node != null) linkedFound++;
+            }
+            long linkedSearch = System.nanoTime() - start;
+            start = System.nanoTime();
+            int arrayFound = 0;
+            for(int probe : probes) if(tree.search(probe) != NIL) arrayFound++;
+            long arraySearch = System.nanoTime() - start;
+
+            System.out.printf("traversal %.1fx, depth %.1fx (%d = %d), search %.1fx (%d = %d)%n",
+                    (double) linkedTraversal / arrayTraversal, (double) linkedDepthTime / arrayDepthTime,
+                    linkedDepth, arrayDepth, (double) linkedSearch / arraySearch, linkedFound, arrayFound);
+        }
+        System.out.println("Array form " + tree.memoryFootprintBytes() / (1 << 20) + " MB vs ~"
+                + 24L * n / (1 << 20) + " MB of TreeNode objects");
+
+        // Complete tree in Eytzinger order: sorted values 0..2^20-2 as a perfect BST
+        int complete = (1 << 20) - 1;
+        ArrayTree perfect = from(MorrisTraversal.buildBalanced(0, complete - 1));
+        int[] layout = perfect.toEytzinger();
+        long start = System.nanoTime();
+        int found = 0;
+        for(int probe : probes) if(eytzingerSearch(layout, probe % complete) != NIL) found++;
+        System.out.println("Eytzinger search: " + found + " hits, depth " + eytzingerDepth(layout.length) + ", "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
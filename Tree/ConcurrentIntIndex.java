@@ -0,0 +1,412 @@
+package Respositories.Java.Tree;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Ordered int -> V index that many threads can read, write and range-scan at the same time.
+ *
+ * It is a lazy skip list (Herlihy, Lev, Luchangco, Shavit): a sorted linked list at level 0, with
+ * every node also linked into levels 1..topLevel with probability 1/2 per level, so a search skips
+ * over about half of the remaining nodes per level, like a walk down a balanced BST.
+ *
+ *   get / range  lock-free: follow next pointers only, never lock, never retry.
+ *   put / remove lock only the predecessors of the affected node (one per level, shared ones once),
+ *                check they are still unmarked and still point where the search saw them, and
+ *                retry the search otherwise.
+ *
+ * A node becomes visible once fullyLinked is set (after it is linked at every level) and stops being
+ * visible once marked (before it is unlinked), so readers never see a half-inserted or half-removed
+ * key. Range scans are weakly consistent, like the iterators of ConcurrentSkipListMap: every key
+ * present for the whole scan is reported, keys changed during the scan may or may not be.
+ *
+ * Time Complexity: expected O(log n) per get / put / remove, O(log n + k) for a range of k keys
+ * Space Complexity: O(n), about 2 next pointers per node on average
+ */
+public final class ConcurrentIntIndex<V> {
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    private static final int MAX_LEVEL = 24;
+    private static final VarHandle NEXT = MethodHandles.arrayElementVarHandle(Node[].class);
+
+    private static final class Node<V> {
+        final long key;                 // head and tail sentinels use keys outside the int range
+        final int topLevel;
+        final Node<V>[] next;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile V value;
+        volatile boolean marked;
+        volatile boolean fullyLinked;
+
+        Node(long key, V value, int topLevel){
+            this.key = key;
+            this.value = value;
+            this.topLevel = topLevel;
+            this.next = newNodeArray(topLevel + 1);
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<V> next(int level){
+            return (Node<V>) NEXT.getAcquire(next, level);
+        }
+
+        void setNext(int level, Node<V> node){
+            NEXT.setRelease(next, level, node);
+        }
+    }
+
+    // The only unchecked cast: arrays of a generic type cannot be created directly
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] newNodeArray(int length){
+        return (Node<V>[]) new Node<?>[length];
+    }
+
+    private final Node<V> head = new Node<>(Long.MIN_VALUE, null, MAX_LEVEL - 1);
+    private final Node<V> tail = new Node<>(Long.MAX_VALUE, null, MAX_LEVEL - 1);
+    private final LongAdder size = new LongAdder();
+
+    public ConcurrentIntIndex(){
+        for(int level = 0; level < MAX_LEVEL; level++) head.setNext(level, tail);
+        head.fullyLinked = true;
+        tail.fullyLinked = true;
+    }
+
+    // Number of keys; exact only when no update is running
+    public long size(){
+        return size.sum();
+    }
+
+    public V get(int key){
+        Node<V> pred = head;
+        for(int level = MAX_LEVEL - 1; level >= 0; level--){
+            Node<V> curr = pred.next(level);
+            while(key > curr.key){
+                pred = curr;
+                curr = pred.next(level);
+            }
+            if(key == curr.key){
+                return curr.fullyLinked && !curr.marked ? curr.value : null;
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key){
+        return get(key) != null;
+    }
+
+    // Returns the previous value, or null if the key was absent
+    public V put(int key, V value){
+        if(value == null) throw new NullPointerException("null values are not supported");
+        int topLevel = randomLevel();
+        Node<V>[] preds = newNodeArray(MAX_LEVEL);
+        Node<V>[] succs = newNodeArray(MAX_LEVEL);
+
+        while(true){
+            int levelFound = find(key, preds, succs);
+            if(levelFound != -1){
+                Node<V> found = succs[levelFound];
+                if(!found.marked){
+                    while(!found.fullyLinked) Thread.onSpinWait();
+                    found.lock.lock();
+                    try {
+                        if(!found.marked){
+                            V previous = found.value;
+                            found.value = value;
+                            return previous;
+                        }
+                    } finally {
+                        found.lock.unlock();
+                    }
+                }
+                continue; // being removed: retry until it is gone
+            }
+
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                Node<V> previousPred = null;
+                for(int level = 0; valid && level <= topLevel; level++){
+                    Node<V> pred = preds[level];
+                    Node<V> succ = succs[level];
+                    if(pred != previousPred){
+                        pred.lock.lock();
+                        highestLocked = level;
+                        previousPred = pred;
+                    }
+                    valid = !pred.marked && !succ.marked && pred.next(level) == succ;
+                }
+                if(!valid) continue;
+
+                Node<V> node = new Node<>(key, value, topLevel);
+                for(int level = 0; level <= topLevel; level++) node.next[level] = succs[level];
+                for(int level = 0; level <= topLevel; level++) preds[level].setNext(level, node);
+                node.fullyLinked = true;
+                size.increment();
+                return null;
+            } finally {
+                unlock(preds, highestLocked);
+            }
+        }
+    }
+
+    // Returns the removed value, or null if the key was absent
+    public V remove(int key){
+        Node<V>[] preds = newNodeArray(MAX_LEVEL);
+        Node<V>[] succs = newNodeArray(MAX_LEVEL);
+        Node<V> victim = null;
+        boolean isMarked = false;
+
+        while(true){
+            int levelFound = find(key, preds, succs);
+            if(levelFound != -1) victim = succs[levelFound];
+            if(!isMarked){
+                // Only a fully linked node found at its own top level can be removed right now
+                if(levelFound == -1 || !victim.fullyLinked || victim.topLevel != levelFound || victim.marked){
+                    return null;
+                }
+                victim.lock.lock();
+                if(victim.marked){
+                    victim.lock.unlock();
+                    return null;
+                }
+                victim.marked = true; // logically removed from here on; only this thread unlinks it
+                isMarked = true;
+            }
+
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                Node<V> previousPred = null;
+                for(int level = 0; valid && level <= victim.topLevel; level++){
+                    Node<V> pred = preds[level];
+                    if(pred != previousPred){
+                        pred.lock.lock();
+                        highestLocked = level;
+                        previousPred = pred;
+                    }
+                    valid = !pred.marked && pred.next(level) == victim;
+                }
+                if(!valid) continue;
+
+                for(int level = victim.topLevel; level >= 0; level--){
+                    preds[level].setNext(level, victim.next(level));
+                }
+                V removed = victim.value;
+                victim.lock.unlock();
+                size.decrement();
+                return removed;
+            } finally {
+                unlock(preds, highestLocked);
+            }
+        }
+    }
+
+    // Reports every key in [from, to) in ascending order; to is a long so that
+    // to = Integer.MAX_VALUE + 1L includes Integer.MAX_VALUE
+    public void range(int from, long to, EntryConsumer<? super V> action){
+        Node<V> pred = head;
+        for(int level = MAX_LEVEL - 1; level >= 0; level--){
+            Node<V> curr = pred.next(level);
+            while(from > curr.key){
+                pred = curr;
+                curr = pred.next(level);
+            }
+        }
+        for(Node<V> node = pred.next(0); node.key < to; node = node.next(0)){
+            V value = node.value;
+            if(node.fullyLinked && !node.marked) action.accept((int) node.key, value);
+        }
+    }
+
+    // Fills preds / succs with the nodes around key on every level; returns the highest level key was found on
+    private int find(int key, Node<V>[] preds, Node<V>[] succs){
+        int levelFound = -1;
+        Node<V> pred = head;
+        for(int level = MAX_LEVEL - 1; level >= 0; level--){
+            Node<V> curr = pred.next(level);
+            while(key > curr.key){
+                pred = curr;
+                curr = pred.next(level);
+            }
+            if(levelFound == -1 && key == curr.key) levelFound = level;
+            preds[level] = pred;
+            succs[level] = curr;
+        }
+        return levelFound;
+    }
+
+    // Equal predecessors sit on consecutive levels and were locked once, on the lowest of them
+    private static void unlock(Node<?>[] preds, int highestLocked){
+        for(int level = 0; level <= highestLocked; level++){
+            if(level == 0 || preds[level] != preds[level - 1]) preds[level].lock.unlock();
+        }
+    }
+
+    private static int randomLevel(){
+        int bits = ThreadLocalRandom.current().nextInt();
+        return Math.min(Integer.numberOfTrailingZeros(bits), MAX_LEVEL - 1);
+    }
+
+    private interface Workload {
+        void run(int key, int op, ThreadLocalRandom random);
+    }
+
+    // Runs threads * opsPerThread random operations; returns million operations per second
+    private static double measure(int threads, int opsPerThread, int keyRange, Workload workload)
+            throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for(int t = 0; t < threads; t++){
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for(int i = 0; i < opsPerThread; i++){
+                    workload.run(random.nextInt(keyRange), random.nextInt(100), random);
+                }
+            });
+            workers[t].start();
+        }
+        for(Thread worker : workers) worker.join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return (double) threads * opsPerThread / seconds / 1e6;
+    }
+
+    /*
+     * Threads insert and remove their own keys [t * keysPerThread, (t + 1) * keysPerThread) while all of
+     * them remove the even and insert the odd keys of one shared block. Afterwards size(), get() and a
+     * full range must match the expected set, and each shared key must have been removed or newly
+     * inserted exactly once across all threads. Throws IllegalStateException otherwise.
+     */
+    static void verifyConcurrent(int threads, int keysPerThread) throws InterruptedException {
+        ConcurrentIntIndex<Integer> index = new ConcurrentIntIndex<>();
+        int shared = threads * keysPerThread;  // shared block: [shared, 2 * shared)
+        int universe = 2 * shared;
+        for(int key = shared; key < universe; key += 2) index.put(key, key);
+
+        LongAdder removed = new LongAdder(), inserted = new LongAdder();
+        Thread[] workers = new Thread[threads];
+        for(int t = 0; t < threads; t++){
+            final int from = t * keysPerThread, offset = t * 997;
+            workers[t] = new Thread(() -> {
+                for(int key = from; key < from + keysPerThread; key++) index.put(key, key);
+                for(int key = from; key < from + keysPerThread; key += 3) index.remove(key);
+                // Every thread walks the shared block from a different offset, so they collide
+                for(int i = 0; i < shared; i++){
+                    int key = shared + (i + offset) % shared;
+                    if((key & 1) == 0){
+                        if(index.remove(key) != null) removed.increment();
+                    } else if(index.put(key, key) == null){
+                        inserted.increment();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for(Thread worker : workers) worker.join();
+
+        long expectedSize = 0;
+        for(int key = 0; key < universe; key++){
+            boolean expected = key < shared ? (key % keysPerThread) % 3 != 0 : (key & 1) != 0;
+            if(expected) expectedSize++;
+            Integer value = index.get(key);
+            if(expected ? value == null || value != key : value != null){
+                throw new IllegalStateException("get(" + key + ") = " + value);
+            }
+        }
+        if(removed.sum() != shared / 2 || inserted.sum() != shared / 2){
+            throw new IllegalStateException(removed.sum() + " removes and " + inserted.sum() + " first inserts of "
+                    + shared / 2 + " shared keys each");
+        }
+        if(index.size() != expectedSize){
+            throw new IllegalStateException("size " + index.size() + ", expected " + expectedSize);
+        }
+        long[] scan = {0, -1}; // entries seen, previous key
+        index.range(0, universe, (key, value) -> {
+            if(key <= scan[1] || value != key || index.get(key) == null){
+                throw new IllegalStateException("range returned " + key + "=" + value + " after " + scan[1]);
+            }
+            scan[0]++;
+            scan[1] = key;
+        });
+        if(scan[0] != expectedSize){
+            throw new IllegalStateException("range returned " + scan[0] + " entries, expected " + expectedSize);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        ConcurrentIntIndex<String> index = new ConcurrentIntIndex<>();
+        for(int key : new int[]{50, 30, 70, 20, 40, 60, 80}) index.put(key, "v" + key);
+        index.remove(40);
+        index.put(60, "updated");
+        StringBuilder range = new StringBuilder();
+        index.range(25, 75, (key, value) -> range.append(key).append('=').append(value).append(' '));
+        System.out.println("Range [25, 75): " + range + "| size " + index.size() + ", get(20) = " + index.get(20));
+
+        index.put(Integer.MAX_VALUE, "max");
+        StringBuilder top = new StringBuilder();
+        index.range(75, Integer.MAX_VALUE + 1L, (key, value) -> top.append(key).append('=').append(value).append(' '));
+        System.out.println("Range [75, 2^31): " + top);
+
+        // Mixed workload: 70% get, 15% put, 10% remove, 5% range of 64 keys, args = [threads] [opsPerThread]
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int ops = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        verifyConcurrent(threads, 1 << 14);
+        System.out.println(threads + " threads: concurrent put/remove matches the expected key set");
+        int keyRange = 1 << 20;
+
+        ConcurrentIntIndex<Integer> ours = new ConcurrentIntIndex<>();
+        ConcurrentSkipListMap<Integer, Integer> theirs = new ConcurrentSkipListMap<>();
+        for(int key = 0; key < keyRange; key += 2){
+            ours.put(key, key);
+            theirs.put(key, key);
+        }
+        AtomicLong sink = new AtomicLong();
+
+        for(int round = 0; round < 3; round++){
+            double oursRate = measure(threads, ops, keyRange, (key, op, random) -> {
+                if(op < 70){
+                    Integer value = ours.get(key);
+                    if(value != null && value == -1) sink.incrementAndGet();
+                } else if(op < 85){
+                    ours.put(key, key);
+                } else if(op < 95){
+                    ours.remove(key);
+                } else {
+                    long[] sum = new long[1];
+                    ours.range(key, key + 64, (k, v) -> sum[0] += v);
+                    if(sum[0] == -1) sink.incrementAndGet();
+                }
+            });
+            double theirsRate = measure(threads, ops, keyRange, (key, op, random) -> {
+                if(op < 70){
+                    Integer value = theirs.get(key);
+                    if(value != null && value == -1) sink.incrementAndGet();
+                } else if(op < 85){
+                    theirs.put(key, key);
+                } else if(op < 95){
+                    theirs.remove(key);
+                } else {
+                    long sum = 0;
+                    for(Map.Entry<Integer, Integer> entry : theirs.subMap(key, key + 64).entrySet()){
+                        sum += entry.getValue();
+                    }
+                    if(sum == -1) sink.incrementAndGet();
+                }
+            });
+            System.out.printf("%d threads: ConcurrentIntIndex %.2f Mops/s, ConcurrentSkipListMap %.2f Mops/s (sizes %d / %d)%n",
+                    threads, oursRate, theirsRate, ours.size(), theirs.size());
+        }
+    }
+}
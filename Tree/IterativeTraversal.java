@@ -0,0 +1,137 @@
+package Respositories.Java.Tree;
+
+import java.util.Arrays;
+
+import Respositories.Java.Tree.BinaryTreeTraversal.TreeNode;
+
+/*
+ * Pre-, in- and post-order traversal without recursion and without shared state.
+ *
+ * BinaryTreeTraversal.traverseTree appends to static lists, so two calls (or two threads) mix their
+ * results, and its recursion overflows the stack on skewed trees thousands of levels deep.
+ * Here every call keeps its own explicit stack, grown by doubling as the walk goes deeper (so it
+ * ends up O(height) without measuring the height first), and writes into int[] buffers owned by
+ * the caller.
+ *
+ * One walk produces all three orders. Every node is visited three times:
+ *   state 0 -> first visit: emit pre-order, go left
+ *   state 1 -> back from left: emit in-order, go right
+ *   state 2 -> back from right: emit post-order, pop
+ *
+ * Time Complexity: O(n)
+ * Space Complexity: O(h) for the stack (h = height), no other allocation
+ */
+public final class IterativeTraversal {
+
+    private static final int INITIAL_STACK = 16;
+
+    private IterativeTraversal() {}
+
+    // Number of levels (0 for an empty tree), from a depth-first walk so deep trees are fine
+    public static int height(TreeNode root){
+        if(root == null) return 0;
+        TreeNode[] stack = new TreeNode[INITIAL_STACK];
+        byte[] state = new byte[INITIAL_STACK];
+        int top = 0;
+        int height = 1;
+        stack[0] = root;
+        while(top >= 0){
+            TreeNode node = stack[top];
+            TreeNode child = state[top] == 0 ? node.left : state[top] == 1 ? node.right : null;
+            if(state[top]++ == 2){
+                stack[top--] = null;
+            } else if(child != null){
+                if(++top == stack.length){
+                    stack = Arrays.copyOf(stack, top * 2);
+                    state = Arrays.copyOf(state, top * 2);
+                }
+                stack[top] = child;
+                state[top] = 0;
+                height = Math.max(height, top + 1);
+            }
+        }
+        return height;
+    }
+
+    /*
+     * Writes the three orders into the given buffers (any of them may be null to skip that order)
+     * and returns the number of nodes. Each non-null buffer needs room for every node.
+     */
+    public static int traverse(TreeNode root, int[] preOrder, int[] inOrder, int[] postOrder){
+        if(root == null) return 0;
+
+        TreeNode[] stack = new TreeNode[INITIAL_STACK];
+        byte[] state = new byte[INITIAL_STACK];
+        int top = 0;
+        int pre = 0, in = 0, post = 0;
+
+        stack[0] = root;
+        state[0] = 0;
+        while(top >= 0){
+            TreeNode node = stack[top];
+            switch(state[top]){
+                case 0:
+                    if(preOrder != null) preOrder[pre] = node.val;
+                    pre++;
+                    state[top] = 1;
+                    if(node.left != null){
+                        if(++top == stack.length){
+                            stack = Arrays.copyOf(stack, top * 2);
+                            state = Arrays.copyOf(state, top * 2);
+                        }
+                        stack[top] = node.left;
+                        state[top] = 0;
+                    }
+                    break;
+                case 1:
+                    if(inOrder != null) inOrder[in] = node.val;
+                    in++;
+                    state[top] = 2;
+                    if(node.right != null){
+                        if(++top == stack.length){
+                            stack = Arrays.copyOf(stack, top * 2);
+                            state = Arrays.copyOf(state, top * 2);
+                        }
+                        stack[top] = node.right;
+                        state[top] = 0;
+                    }
+                    break;
+                default:
+                    if(postOrder != null) postOrder[post] = node.val;
+                    post++;
+                    stack[top--] = null;
+                    break;
+            }
+        }
+        return pre;
+    }
+
+    public static void main(String[] args) {
+
+        TreeNode root = new TreeNode(1,
+            new TreeNode(2,
+                new TreeNode(4),
+                new TreeNode(5)
+            ),
+            new TreeNode(6, new TreeNode(6), new TreeNode(0))
+        );
+
+        int[] pre = new int[7], in = new int[7], post = new int[7];
+        int count = traverse(root, pre, in, post);
+        System.out.println(count + " nodes");
+        System.out.println(Arrays.toString(pre));
+        System.out.println(Arrays.toString(post));
+        System.out.println(Arrays.toString(in));
+
+        // A skewed tree 100k levels deep: the recursive traverseTree overflows the stack here
+        int depth = 100_000;
+        TreeNode chain = null;
+        for(int i = depth; i > 0; i--){
+            chain = new TreeNode(i, chain, null);
+        }
+        int[] inOrder = new int[depth];
+        traverse(chain, null, inOrder, null);
+        System.out.println("Skewed tree: height " + height(chain) + ", first in-order " + inOrder[0]
+                + ", last in-order " + inOrder[depth - 1]);
+    }
+}
@@ -0,0 +1,223 @@
+package Respositories.Java.Tree;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.stream.IntStream;
+
+import Respositories.Java.Tree.BinaryTreeTraversal.TreeNode;
+
+/*
+ * Lowest common ancestor and distance queries in O(1) after O(n log n) preprocessing.
+ *
+ * Nodes are identified by their pre-order index (0 = root), the same numbering as ArrayTree and
+ * TreeFile.
+ *
+ *  1. Euler tour: write a node down every time the walk is at it (on entry and after each child).
+ *     That gives 2n - 1 entries; first[v] is where v appears first.
+ *  2. LCA(u, v) is the shallowest node in the tour between first[u] and first[v].
+ *  3. A sparse table answers that range-minimum in O(1): table[k][i] holds the tour position of the
+ *     shallowest entry in [i, i + 2^k), and any range is covered by two overlapping blocks.
+ *
+ *  distance(u, v) = depth[u] + depth[v] - 2 * depth[LCA(u, v)]
+ *
+ * Time Complexity: build O(n log n), query O(1)
+ * Space Complexity: O(n log n) ints for the sparse table
+ *
+ * The index is immutable once built, so any number of threads may query it. The batch methods
+ * spread int[] query pairs over the common ForkJoinPool.
+ */
+public final class LcaIndex {
+
+    private final int size;
+    private final TreeNode[] nodes;   // pre-order id -> node
+    private final int[] depth;        // depth of each node, root = 0
+    private final int[] first;        // first tour position of each node
+    private final int[] tour;         // node id at each tour position
+    private final int[][] table;
+    private volatile IdentityHashMap<TreeNode, Integer> idOf;
+
+    public LcaIndex(TreeNode root){
+        int n = 0;
+        if(root != null) n = countNodes(root);
+        size = n;
+        nodes = new TreeNode[n];
+        depth = new int[n];
+        first = new int[n];
+        tour = new int[Math.max(0, 2 * n - 1)];
+        if(n == 0){
+            table = new int[0][];
+            return;
+        }
+
+        // Iterative Euler tour: a node is written down on entry and again after each of its children
+        TreeNode[] stack = new TreeNode[64];
+        int[] idStack = new int[64];
+        byte[] state = new byte[64];        // 0 = entering, 1 = left done, 2 = right done
+        int top = 0, nextId = 0, position = 0;
+        stack[0] = root;
+        while(top >= 0){
+            TreeNode node = stack[top];
+            TreeNode child = null;
+            if(state[top] == 0){
+                int id = nextId++;
+                nodes[id] = node;
+                depth[id] = top;
+                first[id] = position;
+                idStack[top] = id;
+                tour[position++] = id;
+                state[top] = 1;
+                child = node.left;
+            } else if(state[top] == 1){
+                state[top] = 2;
+                child = node.right;
+            } else {
+                stack[top--] = null;
+                if(top >= 0) tour[position++] = idStack[top];
+                continue;
+            }
+
+            if(child != null){
+                if(top + 1 == stack.length){
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    idStack = Arrays.copyOf(idStack, idStack.length * 2);
+                    state = Arrays.copyOf(state, state.length * 2);
+                }
+                stack[++top] = child;
+                state[top] = 0;
+            }
+        }
+
+        table = buildSparseTable();
+    }
+
+    private static int countNodes(TreeNode root){
+        int count = 0;
+        TreeNode[] stack = new TreeNode[64];
+        int top = 0;
+        stack[0] = root;
+        while(top >= 0){
+            TreeNode node = stack[top--];
+            count++;
+            if(top + 2 >= stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            if(node.left != null) stack[++top] = node.left;
+            if(node.right != null) stack[++top] = node.right;
+        }
+        return count;
+    }
+
+    private int[][] buildSparseTable(){
+        int length = tour.length;
+        int levels = 32 - Integer.numberOfLeadingZeros(length);
+        int[][] result = new int[levels][];
+        result[0] = new int[length];
+        for(int i = 0; i < length; i++) result[0][i] = i;
+        for(int k = 1; k < levels; k++){
+            int half = 1 << (k - 1);
+            int[] previous = result[k - 1];
+            int[] current = new int[length - (1 << k) + 1];
+            for(int i = 0; i < current.length; i++){
+                current[i] = shallower(previous[i], previous[i + half]);
+            }
+            result[k] = current;
+        }
+        return result;
+    }
+
+    private int shallower(int positionA, int positionB){
+        return depth[tour[positionA]] <= depth[tour[positionB]] ? positionA : positionB;
+    }
+
+    public int size(){
+        return size;
+    }
+
+    public int depth(int node){
+        return depth[node];
+    }
+
+    public TreeNode node(int id){
+        return nodes[id];
+    }
+
+    // Pre-order id of a node of the indexed tree; builds an identity map on first use
+    public int id(TreeNode node){
+        IdentityHashMap<TreeNode, Integer> map = idOf;
+        if(map == null){
+            synchronized(this){
+                map = idOf;
+                if(map == null){
+                    map = new IdentityHashMap<>(size);
+                    for(int i = 0; i < size; i++) map.put(nodes[i], i);
+                    idOf = map;
+                }
+            }
+        }
+        Integer id = map.get(node);
+        if(id == null) throw new IllegalArgumentException("node is not part of the indexed tree");
+        return id;
+    }
+
+    public int lca(int u, int v){
+        int l = first[u], r = first[v];
+        if(l > r){
+            int t = l;
+            l = r;
+            r = t;
+        }
+        int k = 31 - Integer.numberOfLeadingZeros(r - l + 1);
+        return tour[shallower(table[k][l], table[k][r - (1 << k) + 1])];
+    }
+
+    public TreeNode lca(TreeNode a, TreeNode b){
+        return nodes[lca(id(a), id(b))];
+    }
+
+    public int distance(int u, int v){
+        return depth[u] + depth[v] - 2 * depth[lca(u, v)];
+    }
+
+    // pairs = {u0, v0, u1, v1, ...}; out[i] = lca(u_i, v_i)
+    public void lcaBatch(int[] pairs, int[] out){
+        IntStream.range(0, pairs.length / 2).parallel().forEach(i -> out[i] = lca(pairs[2 * i], pairs[2 * i + 1]));
+    }
+
+    // pairs = {u0, v0, u1, v1, ...}; out[i] = distance(u_i, v_i)
+    public void distanceBatch(int[] pairs, int[] out){
+        IntStream.range(0, pairs.length / 2).parallel().forEach(i -> out[i] = distance(pairs[2 * i], pairs[2 * i + 1]));
+    }
+
+    public static void main(String[] args) {
+
+        //          1
+        //        /   \
+        //       2     6
+        //      / \   / \
+        //     4   5 6   0
+        TreeNode four = new TreeNode(4), five = new TreeNode(5), zero = new TreeNode(0);
+        TreeNode root = new TreeNode(1,
+            new TreeNode(2, four, five),
+            new TreeNode(6, new TreeNode(6), zero)
+        );
+        LcaIndex index = new LcaIndex(root);
+        System.out.println("LCA(4, 5) = " + index.lca(four, five).val + ", LCA(4, 0) = " + index.lca(four, zero).val
+                + ", distance(4, 0) = " + index.distance(index.id(four), index.id(zero)));
+
+        // Batch throughput on a large balanced tree, args = [nodes] [queries]
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        long start = System.nanoTime();
+        LcaIndex big = new LcaIndex(MorrisTraversal.buildBalanced(0, n - 1));
+        System.out.println("Index over " + n + " nodes built in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        java.util.SplittableRandom random = new java.util.SplittableRandom(13);
+        int[] pairs = new int[2 * queries];
+        for(int i = 0; i < pairs.length; i++) pairs[i] = random.nextInt(n);
+        int[] out = new int[queries];
+        for(int round = 0; round < 3; round++){
+            start = System.nanoTime();
+            big.distanceBatch(pairs, out);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%.1f million distance queries/s%n", queries / seconds / 1e6);
+        }
+    }
+}
@@ -24,6 +24,12 @@ public class MaxDepthBT {
 
         return 1+ Math.max(left, right);
     }
+
+    // Fork/join, stack-safe version (see ParallelTreeAggregates for size, sum, min and max too)
+    public static int maxDepthParallel(TreeNode root){
+
+        return ParallelTreeAggregates.compute(root).depth;
+    }
     
     public static void main(String[] args) {
         
@@ -40,5 +46,6 @@ public class MaxDepthBT {
         MaxDepthBT tree = new MaxDepthBT();
         int depth = tree.maxDepth(root);
         System.out.println("Max depth: " + depth); // Output should be 3
+        System.out.println("Max depth (parallel): " + maxDepthParallel(root));
     }
 }
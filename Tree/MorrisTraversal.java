@@ -0,0 +1,142 @@
+package Respositories.Java.Tree;
+
+import java.util.function.IntConsumer;
+
+import Respositories.Java.Tree.BinaryTreeTraversal.TreeNode;
+
+/*
+ * Morris traversal: in-order and pre-order with O(1) extra space, no stack and no recursion.
+ *
+ * Before going into a left subtree, the right pointer of that subtree's rightmost node (the in-order
+ * predecessor of the current node) is pointed back at the current node. That temporary "thread" is
+ * how the walk climbs back up. The second time the walk reaches the predecessor it finds the thread,
+ * removes it and moves right.
+ *
+ *          1                 1
+ *         / \               / \
+ *        2   3     ->      2   3      (5.right = 1 while the left subtree of 1 is being walked)
+ *       / \               / \
+ *      4   5             4   5
+ *                             \
+ *                              -> 1
+ *
+ * Every thread is removed before the call returns, also when the consumer throws: the walk then runs
+ * to the end without calling the consumer, and the exception propagates afterwards.
+ * The tree is modified during the walk, so it must not be read by other threads meanwhile.
+ *
+ * Time Complexity: O(n) (every edge is walked at most 3 times)
+ * Space Complexity: O(1)
+ */
+public final class MorrisTraversal {
+
+    private MorrisTraversal() {}
+
+    public static void inOrder(TreeNode root, IntConsumer action){
+        walk(root, action, false);
+    }
+
+    public static void preOrder(TreeNode root, IntConsumer action){
+        walk(root, action, true);
+    }
+
+    private static void walk(TreeNode root, IntConsumer action, boolean preOrder){
+        Walk walk = new Walk(root, preOrder);
+        try {
+            for(TreeNode node = walk.next(); node != null; node = walk.next()){
+                action.accept(node.val);
+            }
+        } finally {
+            // Reached early only if action threw: finish the walk so every thread is removed
+            while(walk.next() != null){
+                // nothing to report
+            }
+        }
+    }
+
+    // The walk as a cursor, so it can be finished without the consumer
+    private static final class Walk {
+        private final boolean preOrder;
+        private TreeNode current;
+
+        Walk(TreeNode root, boolean preOrder){
+            this.current = root;
+            this.preOrder = preOrder;
+        }
+
+        // Next node to report, or null at the end
+        TreeNode next(){
+            while(current != null){
+                TreeNode node = current;
+                if(node.left == null){
+                    current = node.right;
+                    return node;
+                }
+
+                TreeNode predecessor = node.left;
+                while(predecessor.right != null && predecessor.right != node){
+                    predecessor = predecessor.right;
+                }
+
+                if(predecessor.right == null){
+                    // First arrival: thread the predecessor back to node and go left
+                    predecessor.right = node;
+                    current = node.left;
+                    if(preOrder) return node;
+                } else {
+                    // Back from the left subtree: remove the thread and go right
+                    predecessor.right = null;
+                    current = node.right;
+                    if(!preOrder) return node;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Balanced tree with the given number of nodes, values 0..size-1 in in-order
+    static TreeNode buildBalanced(int from, int to){
+        if(from > to) return null;
+        int mid = (from + to) >>> 1;
+        return new TreeNode(mid, buildBalanced(from, mid - 1), buildBalanced(mid + 1, to));
+    }
+
+    public static void main(String[] args) {
+
+        TreeNode root = new TreeNode(1,
+            new TreeNode(2,
+                new TreeNode(4),
+                new TreeNode(5)
+            ),
+            new TreeNode(6, new TreeNode(6), new TreeNode(0))
+        );
+
+        StringBuilder in = new StringBuilder(), pre = new StringBuilder();
+        inOrder(root, v -> in.append(v).append(' '));
+        preOrder(root, v -> pre.append(v).append(' '));
+        System.out.println("In order  : " + in);
+        System.out.println("Pre order : " + pre);
+
+        // Throughput against the recursive BinaryTreeTraversal.traverseTree, args = [nodes] [rounds]
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        TreeNode big = buildBalanced(0, size - 1);
+        long[] sum = new long[1];
+
+        for(int round = 0; round < rounds; round++){
+            long start = System.nanoTime();
+            inOrder(big, v -> sum[0] += v);
+            long morris = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            BinaryTreeTraversal.preOrderTraversalList.clear();
+            BinaryTreeTraversal.inOrderTraversalList.clear();
+            BinaryTreeTraversal.postOrderTraversalList.clear();
+            BinaryTreeTraversal.traverseTree(big);
+            long recursive = System.nanoTime() - start;
+
+            System.out.printf("round %d: Morris in-order %.1f Mnodes/s, recursive traverseTree %.1f Mnodes/s%n",
+                    round, size * 1e3 / morris, size * 1e3 / recursive);
+        }
+        System.out.println("checksum " + sum[0]);
+    }
+}
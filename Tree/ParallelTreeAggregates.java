@@ -0,0 +1,171 @@
+package Respositories.Java.Tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import Respositories.Java.Tree.MaxDepthBT.TreeNode;
+
+/*
+ * Depth, size, sum, min and max of a tree in one parallel pass.
+ *
+ * Each task walks its subtree iteratively with an explicit stack, so the thread stack never grows
+ * with the tree height. While walking, a task hands the right subtree of a node to a new forked
+ * task when:
+ *   - the node has two children (a real split point, not a chain),
+ *   - the pool is short of queued work (getSurplusQueuedTaskCount() <= SURPLUS_THRESHOLD), and
+ *   - the task is fewer than MAX_SPLIT_DEPTH forks away from the root task.
+ * The last rule bounds how deep joins can nest, so a skewed tree is just walked iteratively and
+ * can never overflow the stack.
+ *
+ * Time Complexity: O(n) work, O(n / p + h) time on p workers for a reasonably balanced tree
+ * Space Complexity: O(h) explicit stack per task
+ */
+public final class ParallelTreeAggregates {
+
+    private static final int SURPLUS_THRESHOLD = 2;
+    private static final int MAX_SPLIT_DEPTH = 24;
+
+    public static final class Aggregates {
+        public long size;
+        public int depth;
+        public long sum;
+        public int min = Integer.MAX_VALUE;
+        public int max = Integer.MIN_VALUE;
+
+        void merge(Aggregates other){
+            size += other.size;
+            depth = Math.max(depth, other.depth);
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        @Override
+        public String toString(){
+            return "size=" + size + ", depth=" + depth + ", sum=" + sum
+                    + (size == 0 ? "" : ", min=" + min + ", max=" + max);
+        }
+    }
+
+    private ParallelTreeAggregates() {}
+
+    public static Aggregates compute(TreeNode root){
+        return compute(root, ForkJoinPool.commonPool());
+    }
+
+    public static Aggregates compute(TreeNode root, ForkJoinPool pool){
+        if(root == null) return new Aggregates();
+        return pool.invoke(new SubtreeTask(root, 1, 0));
+    }
+
+    private static final class SubtreeTask extends RecursiveTask<Aggregates> {
+        private static final long serialVersionUID = 1L;
+
+        final TreeNode root;
+        final int rootDepth;
+        final int splitDepth;
+
+        SubtreeTask(TreeNode root, int rootDepth, int splitDepth){
+            this.root = root;
+            this.rootDepth = rootDepth;
+            this.splitDepth = splitDepth;
+        }
+
+        @Override
+        protected Aggregates compute(){
+            Aggregates result = new Aggregates();
+            List<SubtreeTask> forked = new ArrayList<>();
+
+            TreeNode[] nodes = new TreeNode[64];
+            int[] depths = new int[64];
+            int top = 0;
+            nodes[0] = root;
+            depths[0] = rootDepth;
+
+            while(top >= 0){
+                TreeNode node = nodes[top];
+                int depth = depths[top];
+                nodes[top--] = null;
+
+                result.size++;
+                result.sum += node.val;
+                if(node.val < result.min) result.min = node.val;
+                if(node.val > result.max) result.max = node.val;
+                if(depth > result.depth) result.depth = depth;
+
+                TreeNode right = node.right;
+                if(right != null && node.left != null && splitDepth < MAX_SPLIT_DEPTH
+                        && getSurplusQueuedTaskCount() <= SURPLUS_THRESHOLD){
+                    SubtreeTask task = new SubtreeTask(right, depth + 1, splitDepth + 1);
+                    task.fork();
+                    forked.add(task);
+                    right = null;
+                }
+
+                if(top + 2 >= nodes.length){
+                    nodes = Arrays.copyOf(nodes, nodes.length * 2);
+                    depths = Arrays.copyOf(depths, depths.length * 2);
+                }
+                if(right != null){
+                    nodes[++top] = right;
+                    depths[top] = depth + 1;
+                }
+                if(node.left != null){
+                    nodes[++top] = node.left;
+                    depths[top] = depth + 1;
+                }
+            }
+
+            for(int i = forked.size() - 1; i >= 0; i--){
+                result.merge(forked.get(i).join());
+            }
+            return result;
+        }
+    }
+
+    public static void main(String[] args) {
+
+        TreeNode root = new TreeNode(1,
+                            new TreeNode(2,
+                                new TreeNode(4), null),
+                            new TreeNode(3));
+        System.out.println("Sample tree: " + compute(root));
+
+        // Skewed tree deeper than any thread stack
+        TreeNode chain = null;
+        for(int i = 1_000_000; i > 0; i--){
+            chain = new TreeNode(i, null, chain);
+        }
+        System.out.println("Skewed tree: " + compute(chain));
+
+        // Random large tree, parallel aggregates vs a single-threaded iterative walk
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        java.util.SplittableRandom random = new java.util.SplittableRandom(17);
+        TreeNode[] nodes = new TreeNode[n];
+        nodes[0] = new TreeNode(random.nextInt(1000));
+        for(int i = 1; i < n; i++){
+            nodes[i] = new TreeNode(random.nextInt(1000));
+            // Attach to a random earlier node with a free slot (retry on collisions)
+            while(true){
+                TreeNode parent = nodes[random.nextInt(i)];
+                if(parent.left == null) { parent.left = nodes[i]; break; }
+                if(parent.right == null) { parent.right = nodes[i]; break; }
+            }
+        }
+        ForkJoinPool single = new ForkJoinPool(1);
+        for(int round = 0; round < 3; round++){
+            long start = System.nanoTime();
+            Aggregates parallel = compute(nodes[0]);
+            long parallelMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            Aggregates sequential = compute(nodes[0], single);
+            long sequentialMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("parallel " + parallelMillis + " ms, 1 worker " + sequentialMillis + " ms: " + parallel
+                    + (parallel.toString().equals(sequential.toString()) ? "" : " MISMATCH " + sequential));
+        }
+        single.shutdown();
+    }
+}
@@ -0,0 +1,174 @@
+package Respositories.Java.Tree;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import Respositories.Java.Tree.BinaryTreeTraversal.TreeNode;
+
+/*
+ * Builds a tree from its level-order array in one linear, non-recursive pass.
+ *
+ * Input format (the usual "[1,2,3,null,4]" form): values level by level, with a sentinel for a missing
+ * child. Children of absent nodes are not listed.
+ *
+ *      [1, 2, 6, 4, 5, 6, 0]          1
+ *                                   /   \
+ *                                  2     6
+ *                                 / \   / \
+ *                                4   5 6   0
+ *
+ * The k-th real node (in level order) takes the next two entries as its children. Nodes come out of
+ * the arena in exactly that order, so the arena itself acts as the BFS queue and no other buffer is
+ * needed.
+ *
+ * Arena: nodes live in slabs of SLAB_SIZE preallocated TreeNodes. reset() makes them reusable, so
+ * building tree after tree of the same size allocates nothing and keeps GC pressure flat. A reset
+ * recycles the nodes of every tree built from the arena before it; those trees must not be used
+ * afterwards.
+ *
+ * Time Complexity: O(n)
+ * Space Complexity: O(n) nodes, nothing else
+ */
+public final class TreeBuilder {
+
+    private TreeBuilder() {}
+
+    public static final class Arena {
+        private static final int SLAB_SHIFT = 16;
+        private static final int SLAB_SIZE = 1 << SLAB_SHIFT;
+        private static final int SLAB_MASK = SLAB_SIZE - 1;
+
+        private TreeNode[][] slabs = new TreeNode[4][];
+        private int slabCount;
+        private int used;
+
+        public int used(){
+            return used;
+        }
+
+        public int capacity(){
+            return slabCount * SLAB_SIZE;
+        }
+
+        // Makes every node reusable; trees built before are invalid from now on
+        public void reset(){
+            used = 0;
+        }
+
+        TreeNode allocate(int val){
+            if(used == capacity()) addSlab();
+            TreeNode node = slabs[used >>> SLAB_SHIFT][used & SLAB_MASK];
+            used++;
+            node.val = val;
+            node.left = null;
+            node.right = null;
+            return node;
+        }
+
+        TreeNode get(int index){
+            return slabs[index >>> SLAB_SHIFT][index & SLAB_MASK];
+        }
+
+        private void addSlab(){
+            if(slabCount == slabs.length) slabs = Arrays.copyOf(slabs, slabCount * 2);
+            TreeNode[] slab = new TreeNode[SLAB_SIZE];
+            for(int i = 0; i < SLAB_SIZE; i++) slab[i] = new TreeNode();
+            slabs[slabCount++] = slab;
+        }
+    }
+
+    // Builds with a private arena
+    public static TreeNode fromLevelOrder(int[] values, int nullValue){
+        return fromLevelOrder(values, nullValue, new Arena());
+    }
+
+    public static TreeNode fromLevelOrder(int[] values, int nullValue, Arena arena){
+        if(values.length == 0 || values[0] == nullValue){
+            checkOnlySentinels(values, 1, nullValue);
+            return null;
+        }
+
+        int first = arena.used();
+        TreeNode root = arena.allocate(values[0]);
+        int parent = first;
+        int i = 1;
+        while(i < values.length){
+            if(parent == arena.used()){
+                // Untrimmed dumps end in sentinels for the children of the last level; only values count
+                checkOnlySentinels(values, i, nullValue);
+                break;
+            }
+            TreeNode node = arena.get(parent++);
+            if(values[i] != nullValue) node.left = arena.allocate(values[i]);
+            i++;
+            if(i < values.length && values[i] != nullValue) node.right = arena.allocate(values[i]);
+            i++;
+        }
+        return root;
+    }
+
+    private static void checkOnlySentinels(int[] values, int from, int nullValue){
+        for(int i = from; i < values.length; i++){
+            if(values[i] != nullValue){
+                throw new IllegalArgumentException("entry " + i + " has no parent: more children than nodes");
+            }
+        }
+    }
+
+    private static long gcCount(){
+        long count = 0;
+        for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()){
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    public static void main(String[] args) {
+
+        final int NULL = Integer.MIN_VALUE;
+        TreeNode root = fromLevelOrder(new int[]{1, 2, 6, 4, 5, 6, 0}, NULL);
+        int[] pre = new int[7];
+        IterativeTraversal.traverse(root, pre, null, null);
+        System.out.println("Pre order: " + Arrays.toString(pre));
+
+        TreeNode sparse = fromLevelOrder(new int[]{1, NULL, 2, 3}, NULL);
+        System.out.println("Sparse tree: root " + sparse.val + ", right " + sparse.right.val
+                + ", right.left " + sparse.right.left.val);
+
+        // Untrimmed dumps: sentinels for the children of the last level are accepted
+        TreeNode untrimmed = fromLevelOrder(new int[]{1, 2, 3, NULL, NULL, NULL, NULL}, NULL);
+        TreeNode single = fromLevelOrder(new int[]{1, NULL, NULL, NULL}, NULL);
+        System.out.println("Untrimmed: " + untrimmed.left.val + " " + untrimmed.right.val + ", single root "
+                + single.val + " with no children: " + (single.left == null && single.right == null));
+
+        // Build benchmark: fresh nodes per build vs a reused arena, args = [nodes] [rounds]
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int[] values = new int[n];
+        java.util.SplittableRandom random = new java.util.SplittableRandom(21);
+        for(int i = 0; i < n; i++) values[i] = random.nextInt(16) == 0 && i > 0 ? NULL : i;
+
+        long checksum = 0;
+        long gcBefore = gcCount();
+        long start = System.nanoTime();
+        for(int round = 0; round < rounds; round++){
+            checksum += fromLevelOrder(values, NULL).val;
+        }
+        long freshMillis = (System.nanoTime() - start) / 1_000_000;
+        long freshGcs = gcCount() - gcBefore;
+
+        Arena arena = new Arena();
+        gcBefore = gcCount();
+        start = System.nanoTime();
+        for(int round = 0; round < rounds; round++){
+            arena.reset();
+            checksum += fromLevelOrder(values, NULL, arena).val;
+        }
+        long arenaMillis = (System.nanoTime() - start) / 1_000_000;
+        long arenaGcs = gcCount() - gcBefore;
+
+        System.out.println(rounds + " builds of " + arena.used() + " nodes: fresh nodes " + freshMillis + " ms / "
+                + freshGcs + " GCs, reused arena " + arenaMillis + " ms / " + arenaGcs + " GCs (checksum " + checksum + ")");
+    }
+}
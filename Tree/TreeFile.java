@@ -0,0 +1,299 @@
+package Respositories.Java.Tree;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import Respositories.Java.Tree.BinaryTreeTraversal.TreeNode;
+
+/*
+ * Compact binary tree file, readable through memory mapping without building TreeNode objects.
+ *
+ * File layout (little endian):
+ *
+ *   header    : int magic "TREE", int version, long nodeCount                    (16 bytes)
+ *   values    : int[nodeCount]              node values in pre-order
+ *   structure : long[ceil(2 * nodeCount / 64)]  2 bits per node in pre-order: bit 0 = has left,
+ *                                               bit 1 = has right
+ *
+ * Pre-order values plus "which children exist" is enough to rebuild the exact shape, at 4 bytes and
+ * 2 bits per node (a TreeNode is ~24 bytes plus the references pointing at it).
+ *
+ * write() streams the values out during a single iterative walk and keeps only the structure bits
+ * in memory; the node count is patched into the header at the end. The file is written under a
+ * temporary name next to the target and moved into place only once it is complete.
+ * open() maps the file; pre-order, in-order and depth queries then read the mapping directly.
+ * One mapping is used, so a file is limited to 2 GB (about 500 million nodes).
+ */
+public final class TreeFile implements AutoCloseable {
+
+    static final int MAGIC = 0x45455254; // "TREE"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final int bitsBase;
+
+    private TreeFile(FileChannel channel, MappedByteBuffer buffer, int size){
+        this.channel = channel;
+        this.buffer = buffer;
+        this.size = size;
+        this.bitsBase = HEADER_BYTES + 4 * size;
+    }
+
+    public static void write(TreeNode root, Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            writeBody(root, temp);
+            Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            // No-op after the move; on failure the file being replaced is left untouched
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeBody(TreeNode root, Path file) throws IOException {
+        long count = 0;
+        long[] bits = new long[16];
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))){
+            out.write(new byte[HEADER_BYTES]); // patched below once the count is known
+
+            TreeNode[] stack = new TreeNode[64];
+            int top = -1;
+            if(root != null) stack[++top] = root;
+            while(top >= 0){
+                TreeNode node = stack[top--];
+                if(fileSize(count + 1) > Integer.MAX_VALUE){
+                    throw new IOException("tree with more than " + count + " nodes does not fit in a 2 GB tree file");
+                }
+                out.writeInt(Integer.reverseBytes(node.val));
+
+                int word = (int) ((2 * count) >>> 6);
+                if(word == bits.length) bits = Arrays.copyOf(bits, bits.length * 2);
+                int shift = (int) ((2 * count) & 63);
+                if(node.left != null) bits[word] |= 1L << shift;
+                if(node.right != null) bits[word] |= 2L << shift;
+                count++;
+
+                if(top + 2 >= stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                if(node.right != null) stack[++top] = node.right;
+                if(node.left != null) stack[++top] = node.left;
+            }
+
+            for(int w = 0, words = (int) ((2 * count + 63) >>> 6); w < words; w++){
+                out.writeLong(Long.reverseBytes(bits[w]));
+            }
+        }
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)){
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(count).flip();
+            channel.write(header, 0);
+        }
+    }
+
+    // Header + values + two child bits per node, in whole longs
+    private static long fileSize(long count){
+        return HEADER_BYTES + 4 * count + 8 * ((2 * count + 63) >>> 6);
+    }
+
+    public static TreeFile open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if(fileSize < HEADER_BYTES || fileSize > Integer.MAX_VALUE){
+                throw new IOException(file + " is not a tree file");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION){
+                throw new IOException(file + " is not a tree file (version " + VERSION + ")");
+            }
+            long count = buffer.getLong(8);
+            if(fileSize != fileSize(count)){
+                throw new IOException(file + ": size does not match node count " + count);
+            }
+            return new TreeFile(channel, buffer, (int) count);
+        } catch(IOException | RuntimeException e){
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size(){
+        return size;
+    }
+
+    // Value of the i-th node in pre-order
+    public int value(int i){
+        return buffer.getInt(HEADER_BYTES + 4 * i);
+    }
+
+    public boolean hasLeft(int i){
+        return (structure(i) & 1) != 0;
+    }
+
+    public boolean hasRight(int i){
+        return (structure(i) & 2) != 0;
+    }
+
+    private int structure(int i){
+        long word = buffer.getLong(bitsBase + 8 * ((2 * i) >>> 6));
+        return (int) (word >>> ((2 * i) & 63)) & 3;
+    }
+
+    public void preOrder(IntConsumer action){
+        for(int i = 0; i < size; i++) action.accept(value(i));
+    }
+
+    /*
+     * In pre-order a node with a left child is followed by that child. A node without one is
+     * emitted at once; when its subtree is finished the walk pops ancestors that were waiting for
+     * their left subtree, until one of them has a right child (the next node in pre-order).
+     */
+    public void inOrder(IntConsumer action){
+        int[] waiting = new int[64];
+        int top = -1;
+        for(int i = 0; i < size; i++){
+            int bits = structure(i);
+            if((bits & 1) != 0){
+                if(top + 1 == waiting.length) waiting = Arrays.copyOf(waiting, waiting.length * 2);
+                waiting[++top] = i;
+                continue;
+            }
+            action.accept(value(i));
+            if((bits & 2) != 0) continue;
+            while(top >= 0){
+                int ancestor = waiting[top--];
+                action.accept(value(ancestor));
+                if(hasRight(ancestor)) break;
+            }
+        }
+    }
+
+    // Number of levels; pending right children are kept on a stack of their depths
+    public int maxDepth(){
+        if(size == 0) return 0;
+        int[] pendingDepth = new int[64];
+        int top = -1;
+        int depth = 1, best = 0;
+        for(int i = 0; i < size; i++){
+            best = Math.max(best, depth);
+            int bits = structure(i);
+            if((bits & 3) == 3){
+                if(top + 1 == pendingDepth.length) pendingDepth = Arrays.copyOf(pendingDepth, pendingDepth.length * 2);
+                pendingDepth[++top] = depth + 1;
+                depth++;
+            } else if(bits != 0){
+                depth++;
+            } else if(top >= 0){
+                depth = pendingDepth[top--];
+            }
+        }
+        return best;
+    }
+
+    // Rebuilds TreeNode objects, for callers that really need them
+    public TreeNode toTreeNode(){
+        if(size == 0) return null;
+        TreeNode[] waiting = new TreeNode[64];
+        int top = -1;
+        TreeNode root = new TreeNode(value(0));
+        TreeNode parent = null;
+        boolean asLeft = false;
+        for(int i = 0; i < size; i++){
+            TreeNode node = i == 0 ? root : new TreeNode(value(i));
+            if(parent != null){
+                if(asLeft) parent.left = node; else parent.right = node;
+            }
+            int bits = structure(i);
+            if((bits & 3) == 3){
+                if(top + 1 == waiting.length) waiting = Arrays.copyOf(waiting, waiting.length * 2);
+                waiting[++top] = node;
+            }
+            if((bits & 1) != 0){
+                parent = node;
+                asLeft = true;
+            } else if((bits & 2) != 0){
+                parent = node;
+                asLeft = false;
+            } else if(top >= 0){
+                parent = waiting[top--];
+                asLeft = false;
+            }
+        }
+        return root;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        TreeNode root = new TreeNode(1,
+            new TreeNode(2,
+                new TreeNode(4),
+                new TreeNode(5)
+            ),
+            new TreeNode(6, new TreeNode(6), new TreeNode(0))
+        );
+        Path dir = Files.createTempDirectory("tree");
+        Path small = dir.resolve("small.tree");
+        write(root, small);
+        try(TreeFile file = open(small)){
+            StringBuilder in = new StringBuilder();
+            file.inOrder(v -> in.append(v).append(' '));
+            System.out.println(Files.size(small) + " bytes, in order: " + in + "| depth " + file.maxDepth());
+        }
+
+        // Load benchmark: mapped queries vs rebuilding TreeNode objects, args = [nodes]
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Path big = dir.resolve("big.tree");
+        write(MorrisTraversal.buildBalanced(0, n - 1), big);
+        Runtime runtime = Runtime.getRuntime();
+
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        long[] sum = new long[1];
+        try(TreeFile file = open(big)){
+            int depth = file.maxDepth();
+            file.inOrder(v -> sum[0] += v);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.gc();
+            long heap = runtime.totalMemory() - runtime.freeMemory() - heapBefore;
+            System.out.println("mapped   : open + depth + in-order in " + millis + " ms, depth " + depth
+                    + ", extra heap ~" + Math.max(0, heap) / (1 << 20) + " MB");
+
+            System.gc();
+            heapBefore = runtime.totalMemory() - runtime.freeMemory();
+            start = System.nanoTime();
+            TreeNode rebuilt = file.toTreeNode();
+            int rebuiltDepth = IterativeTraversal.height(rebuilt);
+            millis = (System.nanoTime() - start) / 1_000_000;
+            System.gc();
+            heap = runtime.totalMemory() - runtime.freeMemory() - heapBefore;
+            System.out.println("objects  : rebuild + depth in " + millis + " ms, depth " + rebuiltDepth
+                    + ", extra heap ~" + heap / (1 << 20) + " MB (root " + rebuilt.val + ")");
+        }
+
+        Files.delete(small);
+        Files.delete(big);
+        Files.delete(dir);
+    }
+}
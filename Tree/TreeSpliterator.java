@@ -0,0 +1,369 @@
+package Respositories.Java.Tree;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import Respositories.Java.Tree.BinaryTreeTraversal.TreeNode;
+
+/*
+ * Spliterator.OfInt over trees, so they plug straight into IntStream (sequential or parallel)
+ * without copying the values into a List first.
+ *
+ *   inOrder(TreeNode)    ORDERED in-order values. trySplit() hands off a whole left subtree (or the
+ *                        top pending node with its right subtree) as the prefix; a single pending
+ *                        node is descended into, so splitting keeps going down the tree.
+ *   levelOrder(TreeNode) level-order values when run sequentially. trySplit() hands off half of the
+ *                        pending frontier with everything below it, so a split stream is no longer
+ *                        in level order and the spliterator does not report ORDERED.
+ *   inOrder(ArrayTree)   like inOrder(TreeNode), but subtree sizes are known, so it reports exact
+ *                        SIZED | SUBSIZED estimates.
+ *
+ * No spliterator allocates per element: the pending nodes live in an ArrayDeque or an int[] stack.
+ * The tree must not be modified while a stream over it is running.
+ */
+public final class TreeSpliterator {
+
+    private TreeSpliterator() {}
+
+    public static Spliterator.OfInt inOrder(TreeNode root){
+        return new InOrder(null, root, new ArrayDeque<>(), root == null ? 0 : Long.MAX_VALUE);
+    }
+
+    public static Spliterator.OfInt levelOrder(TreeNode root){
+        ArrayDeque<TreeNode> queue = new ArrayDeque<>();
+        if(root != null) queue.add(root);
+        return new LevelOrder(queue, root == null ? 0 : Long.MAX_VALUE);
+    }
+
+    public static Spliterator.OfInt inOrder(ArrayTree tree){
+        int[] sizes = tree.subtreeSizes();
+        return new ArrayInOrder(tree, sizes, ArrayTree.NIL, tree.size() == 0 ? ArrayTree.NIL : 0, new int[8], 0, tree.size());
+    }
+
+    public static IntStream inOrderStream(TreeNode root, boolean parallel){
+        return StreamSupport.intStream(inOrder(root), parallel);
+    }
+
+    public static IntStream levelOrderStream(TreeNode root, boolean parallel){
+        return StreamSupport.intStream(levelOrder(root), parallel);
+    }
+
+    public static IntStream inOrderStream(ArrayTree tree, boolean parallel){
+        return StreamSupport.intStream(inOrder(tree), parallel);
+    }
+
+    /*
+     * Pending work, in emit order: first the lone node "head" (its value only, set by trySplit),
+     * then the whole subtree "current", then for every node on the stack (top first) the node
+     * itself followed by its right subtree.
+     */
+    private static final class InOrder implements Spliterator.OfInt {
+        private TreeNode head;
+        private TreeNode current;
+        private final ArrayDeque<TreeNode> stack;
+        private long estimate;
+
+        InOrder(TreeNode head, TreeNode current, ArrayDeque<TreeNode> stack, long estimate){
+            this.head = head;
+            this.current = current;
+            this.stack = stack;
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action){
+            if(head != null){
+                action.accept(head.val);
+                head = null;
+                return true;
+            }
+            while(current != null){
+                stack.push(current);
+                current = current.left;
+            }
+            TreeNode node = stack.poll();
+            if(node == null) return false;
+            action.accept(node.val);
+            current = node.right;
+            return true;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit(){
+            if(current != null && current.left == null){
+                // Same pending work as a stack entry: current, then its right subtree
+                stack.push(current);
+                current = null;
+            }
+            if(current != null){
+                // Prefix: head and the left subtree. This keeps current and its right subtree.
+                TreeNode left = current.left;
+                stack.push(current);
+                current = null;
+                TreeNode prefixHead = head;
+                head = null;
+                estimate >>>= 1;
+                return new InOrder(prefixHead, left, new ArrayDeque<>(), estimate);
+            }
+            if(head != null){
+                // Prefix: the lone head value, so the stack can be split next time
+                TreeNode prefixHead = head;
+                head = null;
+                return new InOrder(prefixHead, null, new ArrayDeque<>(), 1);
+            }
+            if(stack.size() > 1){
+                // Prefix: the next pending node with its right subtree
+                TreeNode next = stack.pop();
+                ArrayDeque<TreeNode> prefixStack = new ArrayDeque<>();
+                prefixStack.push(next);
+                estimate >>>= 1;
+                return new InOrder(null, null, prefixStack, estimate);
+            }
+            TreeNode only = stack.peek();
+            if(only != null && only.right != null){
+                // One pending node: descend into it. Prefix: the node and right.left's subtree,
+                // this keeps right and its right subtree.
+                TreeNode right = only.right;
+                stack.pop();
+                stack.push(right);
+                estimate >>>= 1;
+                return new InOrder(only, right.left, new ArrayDeque<>(), estimate);
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize(){
+            return estimate;
+        }
+
+        @Override
+        public int characteristics(){
+            return ORDERED | NONNULL;
+        }
+    }
+
+    /*
+     * Pending work: first the values in expanded[] (nodes already opened up by trySplit, emitted
+     * without looking at their children again), then the subtrees in the queue, level by level.
+     */
+    private static final class LevelOrder implements Spliterator.OfInt {
+        private static final int MAX_EXPANSIONS = 64;
+
+        private final ArrayDeque<TreeNode> queue;
+        private int[] expanded = new int[0];
+        private int expandedCount;
+        private int expandedIndex;
+        private long estimate;
+
+        LevelOrder(ArrayDeque<TreeNode> queue, long estimate){
+            this.queue = queue;
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action){
+            if(expandedIndex < expandedCount){
+                action.accept(expanded[expandedIndex++]);
+                return true;
+            }
+            TreeNode node = queue.poll();
+            if(node == null) return false;
+            if(node.left != null) queue.add(node.left);
+            if(node.right != null) queue.add(node.right);
+            action.accept(node.val);
+            return true;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit(){
+            // A single pending subtree cannot be halved: open it up until there are two to share
+            for(int i = 0; queue.size() == 1 && i < MAX_EXPANSIONS; i++){
+                TreeNode only = queue.peek();
+                if(only.left == null && only.right == null) return null;
+                queue.poll();
+                if(expandedCount == expanded.length){
+                    expanded = Arrays.copyOf(expanded, Math.max(4, expandedCount * 2));
+                }
+                expanded[expandedCount++] = only.val;
+                if(only.left != null) queue.add(only.left);
+                if(only.right != null) queue.add(only.right);
+            }
+            if(queue.size() < 2) return null;
+            ArrayDeque<TreeNode> half = new ArrayDeque<>();
+            for(int i = queue.size() / 2; i > 0; i--){
+                half.add(queue.poll());
+            }
+            estimate >>>= 1;
+            return new LevelOrder(half, estimate);
+        }
+
+        @Override
+        public long estimateSize(){
+            return estimate;
+        }
+
+        @Override
+        public int characteristics(){
+            return NONNULL;
+        }
+    }
+
+    // Same walk as InOrder over ArrayTree indices, with exact sizes from subtreeSizes()
+    private static final class ArrayInOrder implements Spliterator.OfInt {
+        private final ArrayTree tree;
+        private final int[] sizes;
+        private int head;
+        private int current;
+        private int[] stack;
+        private int top;          // number of entries in stack
+        private long remaining;
+
+        ArrayInOrder(ArrayTree tree, int[] sizes, int head, int current, int[] stack, int top, long remaining){
+            this.tree = tree;
+            this.sizes = sizes;
+            this.head = head;
+            this.current = current;
+            this.stack = stack;
+            this.top = top;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action){
+            if(head != ArrayTree.NIL){
+                remaining--;
+                action.accept(tree.val[head]);
+                head = ArrayTree.NIL;
+                return true;
+            }
+            int[] left = tree.left;
+            while(current != ArrayTree.NIL){
+                push(current);
+                current = left[current];
+            }
+            if(top == 0) return false;
+            int node = stack[--top];
+            remaining--;
+            action.accept(tree.val[node]);
+            current = tree.right[node];
+            return true;
+        }
+
+        private void push(int node){
+            if(top == stack.length) stack = Arrays.copyOf(stack, top * 2);
+            stack[top++] = node;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit(){
+            if(current != ArrayTree.NIL && tree.left[current] == ArrayTree.NIL){
+                push(current);
+                current = ArrayTree.NIL;
+            }
+            if(current != ArrayTree.NIL){
+                int left = tree.left[current];
+                push(current);
+                current = ArrayTree.NIL;
+                int prefixHead = head;
+                head = ArrayTree.NIL;
+                long prefixSize = sizes[left] + (prefixHead == ArrayTree.NIL ? 0 : 1);
+                remaining -= prefixSize;
+                return new ArrayInOrder(tree, sizes, prefixHead, left, new int[8], 0, prefixSize);
+            }
+            if(head != ArrayTree.NIL){
+                int prefixHead = head;
+                head = ArrayTree.NIL;
+                remaining--;
+                return new ArrayInOrder(tree, sizes, prefixHead, ArrayTree.NIL, new int[8], 0, 1);
+            }
+            if(top > 1){
+                int next = stack[--top];
+                int right = tree.right[next];
+                long prefixSize = 1 + (right == ArrayTree.NIL ? 0 : sizes[right]);
+                remaining -= prefixSize;
+                int[] prefixStack = new int[8];
+                prefixStack[0] = next;
+                return new ArrayInOrder(tree, sizes, ArrayTree.NIL, ArrayTree.NIL, prefixStack, 1, prefixSize);
+            }
+            if(top == 1 && tree.right[stack[0]] != ArrayTree.NIL){
+                int only = stack[0];
+                int right = tree.right[only];
+                int rightLeft = tree.left[right];
+                stack[0] = right;
+                long prefixSize = 1 + (rightLeft == ArrayTree.NIL ? 0 : sizes[rightLeft]);
+                remaining -= prefixSize;
+                return new ArrayInOrder(tree, sizes, only, rightLeft, new int[8], 0, prefixSize);
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize(){
+            return remaining;
+        }
+
+        @Override
+        public int characteristics(){
+            return ORDERED | NONNULL | SIZED | SUBSIZED;
+        }
+    }
+
+    // {chunks, largest chunk} after splitting every piece up to depth times
+    private static long[] splitStats(Spliterator.OfInt spliterator, int depth){
+        Spliterator.OfInt prefix = depth > 0 ? spliterator.trySplit() : null;
+        if(prefix == null){
+            long[] count = new long[1];
+            spliterator.forEachRemaining((int value) -> count[0]++);
+            return new long[]{1, count[0]};
+        }
+        long[] left = splitStats(prefix, depth - 1);
+        long[] right = splitStats(spliterator, depth - 1);
+        return new long[]{left[0] + right[0], Math.max(left[1], right[1])};
+    }
+
+    public static void main(String[] args) {
+
+        TreeNode root = new TreeNode(1,
+            new TreeNode(2,
+                new TreeNode(4),
+                new TreeNode(5)
+            ),
+            new TreeNode(6, new TreeNode(6), new TreeNode(0))
+        );
+        System.out.println("In order   : " + Arrays.toString(inOrderStream(root, false).toArray()));
+        System.out.println("Level order: " + Arrays.toString(levelOrderStream(root, false).toArray()));
+        System.out.println("Parallel in order (encounter order kept): "
+                + Arrays.toString(inOrderStream(root, true).toArray()));
+
+        // Large balanced tree, sequential vs parallel filter + sum
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        TreeNode big = MorrisTraversal.buildBalanced(0, n - 1);
+        ArrayTree array = ArrayTree.from(big);
+        // Six split levels should give 64 chunks of about n / 64 values for every spliterator
+        System.out.println("6 split levels (chunks, largest): in-order " + Arrays.toString(splitStats(inOrder(big), 6))
+                + ", level-order " + Arrays.toString(splitStats(levelOrder(big), 6))
+                + ", ArrayTree " + Arrays.toString(splitStats(inOrder(array), 6)));
+        for(int round = 0; round < 3; round++){
+            long start = System.nanoTime();
+            long sequential = inOrderStream(big, false).filter(v -> v % 3 == 0).asLongStream().sum();
+            long sequentialMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            long parallel = inOrderStream(big, true).filter(v -> v % 3 == 0).asLongStream().sum();
+            long parallelMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            long levels = levelOrderStream(big, true).filter(v -> v % 3 == 0).asLongStream().sum();
+            long levelMillis = (System.nanoTime() - start) / 1_000_000;
+            start = System.nanoTime();
+            long sized = array.intStream().parallel().filter(v -> v % 3 == 0).asLongStream().sum();
+            long sizedMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("sequential " + sequentialMillis + " ms, parallel " + parallelMillis
+                    + " ms, parallel level-order " + levelMillis + " ms, parallel ArrayTree " + sizedMillis
+                    + " ms (sums equal: " + (sequential == parallel && parallel == levels && levels == sized) + ")");
+        }
+    }
+}